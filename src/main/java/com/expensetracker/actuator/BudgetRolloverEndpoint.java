@@ -0,0 +1,52 @@
+package com.expensetracker.actuator;
+
+import com.expensetracker.service.BudgetRolloverService;
+import com.expensetracker.service.BudgetRolloverService.RolloverReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Operator-only, over JMX (org.springframework.boot:type=Endpoint,name=Budgetrollover): report returns
+ * progress of the latest rollover run, start (optionally with period=2026-01, default last month) closes
+ * a month the scheduled run missed. Runs snapshot every user's budgets, so the endpoint is never exposed
+ * over HTTP.
+ */
+@Component
+@JmxEndpoint(id = "budgetrollover")
+public class BudgetRolloverEndpoint {
+
+    private final BudgetRolloverService budgetRolloverService;
+
+    @Autowired
+    public BudgetRolloverEndpoint(BudgetRolloverService budgetRolloverService) {
+        this.budgetRolloverService = budgetRolloverService;
+    }
+
+    @ReadOperation
+    public RolloverReport report() {
+        return budgetRolloverService.getReport();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String period) {
+        try {
+            YearMonth month = period != null ? YearMonth.parse(period) : YearMonth.now().minusMonths(1);
+            boolean started = budgetRolloverService.start(month);
+            return Map.of(
+                    "started", started,
+                    "message", started ? "Budget rollover for " + month + " started" : "A budget rollover run is already in progress");
+        } catch (DateTimeParseException e) {
+            return Map.of("started", false, "message", "period must be formatted as yyyy-MM");
+        } catch (IllegalArgumentException e) {
+            return Map.of("started", false, "message", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.expensetracker.actuator;
+
+import com.expensetracker.service.InterestAccrualService;
+import com.expensetracker.service.InterestAccrualService.AccrualReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Operator-only, over JMX (org.springframework.boot:type=Endpoint,name=Ledgerinterest): report returns
+ * progress of the latest accrual run, start (optionally with period=2026-01, default last month) starts a
+ * new run for a month the schedule missed. Runs post interest to every user's ledgers, so the endpoint is
+ * never exposed over HTTP.
+ */
+@Component
+@JmxEndpoint(id = "ledgerinterest")
+public class InterestAccrualEndpoint {
+
+    private final InterestAccrualService interestAccrualService;
+
+    @Autowired
+    public InterestAccrualEndpoint(InterestAccrualService interestAccrualService) {
+        this.interestAccrualService = interestAccrualService;
+    }
+
+    @ReadOperation
+    public AccrualReport report() {
+        return interestAccrualService.getReport();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String period) {
+        try {
+            YearMonth month = period != null ? YearMonth.parse(period) : YearMonth.now().minusMonths(1);
+            boolean started = interestAccrualService.start(month);
+            return Map.of(
+                    "started", started,
+                    "message", started ? "Interest accrual for " + month + " started" : "An interest accrual run is already in progress");
+        } catch (DateTimeParseException e) {
+            return Map.of("started", false, "message", "period must be formatted as yyyy-MM");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Map.of("started", false, "message", e.getMessage());
+        }
+    }
+}
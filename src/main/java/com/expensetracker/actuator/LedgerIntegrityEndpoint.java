@@ -0,0 +1,42 @@
+package com.expensetracker.actuator;
+
+import com.expensetracker.service.LedgerIntegrityService;
+import com.expensetracker.service.LedgerIntegrityService.IntegrityReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Operator-only, over JMX (org.springframework.boot:type=Endpoint,name=Ledgerintegrity): report returns
+ * progress and findings of the latest run, start (optionally with repair=true) starts a new run. Runs and
+ * findings span every user's ledgers, so the endpoint is never exposed over HTTP.
+ */
+@Component
+@JmxEndpoint(id = "ledgerintegrity")
+public class LedgerIntegrityEndpoint {
+
+    private final LedgerIntegrityService ledgerIntegrityService;
+
+    @Autowired
+    public LedgerIntegrityEndpoint(LedgerIntegrityService ledgerIntegrityService) {
+        this.ledgerIntegrityService = ledgerIntegrityService;
+    }
+
+    @ReadOperation
+    public IntegrityReport report() {
+        return ledgerIntegrityService.getReport();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Boolean repair) {
+        boolean started = ledgerIntegrityService.start(Boolean.TRUE.equals(repair));
+        return Map.of(
+                "started", started,
+                "message", started ? "Ledger integrity run started" : "A ledger integrity run is already in progress");
+    }
+}
@@ -3,12 +3,14 @@ package com.expensetracker.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class PerformanceConfig {
 
     @Bean(name = "taskExecutor")
@@ -21,5 +23,31 @@ public class PerformanceConfig {
         executor.initialize();
         return executor;
     }
+
+    // Deferred running-balance recomputes. Uses the default abort policy: a party that does not fit in the
+    // queue stays pending and is picked up by RunningBalanceQueue's retry sweep, never run on the writer
+    @Bean(name = "runningBalanceExecutor")
+    public Executor runningBalanceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("running-balance-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Budget threshold evaluation after expense writes. Uses the default abort policy: a change that does not
+    // fit in the queue is dropped by the caller rather than evaluated on the request thread
+    @Bean(name = "budgetAlertExecutor")
+    public Executor budgetAlertExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("budget-alerts-");
+        executor.initialize();
+        return executor;
+    }
 }
 
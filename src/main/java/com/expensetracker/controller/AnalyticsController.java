@@ -0,0 +1,88 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.CategoryExpenseTotal;
+import com.expensetracker.dto.ExpenseTimeSeries;
+import com.expensetracker.dto.MessageResponse;
+import com.expensetracker.dto.MonthlyExpenseTotal;
+import com.expensetracker.dto.YearOverYearReport;
+import com.expensetracker.service.ExpenseAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "Expense analytics APIs")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AnalyticsController {
+
+    private final ExpenseAnalyticsService expenseAnalyticsService;
+
+    @Autowired
+    public AnalyticsController(ExpenseAnalyticsService expenseAnalyticsService) {
+        this.expenseAnalyticsService = expenseAnalyticsService;
+    }
+
+    @GetMapping("/monthly")
+    @Operation(summary = "Get monthly totals", description = "Total spending per month, oldest first, with empty months " +
+            "reported as zero. Defaults to the last 12 months.")
+    public ResponseEntity<List<MonthlyExpenseTotal>> getMonthlyTotals(
+            @Parameter(description = "First month (yyyy-MM)", example = "2026-01") @RequestParam(required = false) YearMonth from,
+            @Parameter(description = "Last month (yyyy-MM)", example = "2026-12") @RequestParam(required = false) YearMonth to) {
+        return ResponseEntity.ok(expenseAnalyticsService.getMonthlyTotals(from, to));
+    }
+
+    @GetMapping("/categories")
+    @Operation(summary = "Get category breakdown", description = "Spending per category over a month range, largest first. " +
+            "Defaults to the current month.")
+    public ResponseEntity<List<CategoryExpenseTotal>> getCategoryBreakdown(
+            @Parameter(description = "First month (yyyy-MM)", example = "2026-01") @RequestParam(required = false) YearMonth from,
+            @Parameter(description = "Last month (yyyy-MM)", example = "2026-12") @RequestParam(required = false) YearMonth to) {
+        return ResponseEntity.ok(expenseAnalyticsService.getCategoryBreakdown(from, to));
+    }
+
+    @GetMapping("/year-over-year")
+    @Operation(summary = "Get year-over-year comparison", description = "Spending per month of a year compared with the " +
+            "same month of the previous year. Defaults to the current year.")
+    public ResponseEntity<YearOverYearReport> getYearOverYear(
+            @Parameter(description = "Year to report on", example = "2026") @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(expenseAnalyticsService.getYearOverYear(year));
+    }
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get spending time series", description = "Spending per day, week or month between two dates " +
+            "(inclusive), optionally split by category. Empty buckets are returned as zero; weeks start on Monday.")
+    public ResponseEntity<?> getTimeSeries(
+            @Parameter(description = "First day (yyyy-MM-dd); defaults to 30 days, 12 weeks or 12 months before endDate")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day (yyyy-MM-dd); defaults to today")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Bucket size: day, week or month", example = "day") @RequestParam(defaultValue = "day") String granularity,
+            @Parameter(description = "Return one series per category") @RequestParam(defaultValue = "false") boolean byCategory) {
+        ExpenseAnalyticsService.Granularity bucketSize;
+        try {
+            bucketSize = ExpenseAnalyticsService.Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("granularity must be day, week or month"));
+        }
+        ExpenseTimeSeries series = expenseAnalyticsService.getTimeSeries(startDate, endDate, bucketSize, byCategory);
+        return ResponseEntity.ok(series);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild analytics", description = "Recompute the monthly category rollups from the user's expenses")
+    public ResponseEntity<MessageResponse> rebuildRollups() {
+        expenseAnalyticsService.rebuildRollups();
+        return ResponseEntity.ok(new MessageResponse("Expense rollups rebuilt from expenses"));
+    }
+}
@@ -1,17 +1,27 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.BudgetRequest;
+import com.expensetracker.dto.BudgetUtilization;
 import com.expensetracker.dto.PageResponse;
 import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.BudgetAlert;
+import com.expensetracker.entity.BudgetPeriodSnapshot;
+import com.expensetracker.service.BudgetAlertService;
+import com.expensetracker.service.BudgetRolloverService;
 import com.expensetracker.service.BudgetService;
+import com.expensetracker.service.BudgetUtilizationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -21,10 +31,17 @@ import java.util.List;
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final BudgetUtilizationService budgetUtilizationService;
+    private final BudgetAlertService budgetAlertService;
+    private final BudgetRolloverService budgetRolloverService;
 
     @Autowired
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, BudgetUtilizationService budgetUtilizationService,
+                            BudgetAlertService budgetAlertService, BudgetRolloverService budgetRolloverService) {
         this.budgetService = budgetService;
+        this.budgetUtilizationService = budgetUtilizationService;
+        this.budgetAlertService = budgetAlertService;
+        this.budgetRolloverService = budgetRolloverService;
     }
 
     @GetMapping
@@ -45,11 +62,47 @@ public class BudgetController {
             );
             return ResponseEntity.ok(response);
         } else {
-            List<Budget> budgets = budgetService.getAllBudgets();
-            return ResponseEntity.ok(budgets);
+            // Unpaged: stream every row instead of materializing the whole list
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(budgetService.streamAllBudgets());
         }
     }
 
+    @GetMapping("/utilization")
+    @Operation(summary = "Get budget utilization", description = "Spent, remaining and percent used for every budget " +
+            "in its current window (this month for monthly budgets, this year for yearly ones)")
+    public ResponseEntity<List<BudgetUtilization>> getUtilization() {
+        return ResponseEntity.ok(budgetUtilizationService.getUtilization());
+    }
+
+    @GetMapping("/alerts")
+    @Operation(summary = "Get budget alerts", description = "The latest 100 budget threshold alerts, newest first.")
+    public ResponseEntity<List<BudgetAlert>> getAlerts() {
+        return ResponseEntity.ok(budgetAlertService.getRecentAlerts());
+    }
+
+    @GetMapping("/history")
+    @Operation(summary = "Get budget history", description = "Final utilization of every budget for each closed period " +
+            "that started within the given months, newest first. Defaults to the 12 months before this one.")
+    public ResponseEntity<List<BudgetPeriodSnapshot>> getHistory(
+            @Parameter(description = "First month (yyyy-MM)", example = "2026-01") @RequestParam(required = false) YearMonth from,
+            @Parameter(description = "Last month (yyyy-MM)", example = "2026-12") @RequestParam(required = false) YearMonth to) {
+        return ResponseEntity.ok(budgetRolloverService.getHistory(from, to));
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get history of a budget", description = "Final utilization of one budget for each closed period, newest first")
+    public ResponseEntity<List<BudgetPeriodSnapshot>> getHistoryById(@PathVariable Long id) {
+        return ResponseEntity.ok(budgetRolloverService.getHistory(id));
+    }
+
+    @GetMapping("/{id}/utilization")
+    @Operation(summary = "Get utilization of a budget", description = "Spent, remaining and percent used for one budget in its current window")
+    public ResponseEntity<BudgetUtilization> getUtilizationById(@PathVariable Long id) {
+        return ResponseEntity.ok(budgetUtilizationService.getUtilization(id));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get budget by ID", description = "Retrieve a specific budget by its ID")
     public ResponseEntity<Budget> getBudgetById(@PathVariable Long id) {
@@ -5,10 +5,10 @@ import com.expensetracker.service.CreditService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/credits")
@@ -22,9 +22,10 @@ public class CreditController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Credit>> getAllCredits() {
-        List<Credit> credits = creditService.getAllCredits();
-        return ResponseEntity.ok(credits);
+    public ResponseEntity<StreamingResponseBody> getAllCredits() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(creditService.streamAllCredits());
     }
 
     @GetMapping("/{id}")
@@ -1,7 +1,10 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.ExpenseBulkResponse;
 import com.expensetracker.dto.PageResponse;
+import com.expensetracker.dto.SliceResponse;
 import com.expensetracker.entity.Expense;
+import com.expensetracker.exception.ValidationException;
 import com.expensetracker.service.ExpenseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,8 +14,10 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +27,8 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class ExpenseController {
 
+    private static final int MAX_SLICE_SIZE = 500;
+
     private final ExpenseService expenseService;
 
     @Autowired
@@ -47,9 +54,24 @@ public class ExpenseController {
             );
             return ResponseEntity.ok(response);
         } else {
-            List<Expense> expenses = expenseService.getAllExpenses();
-            return ResponseEntity.ok(expenses);
+            // Unpaged: stream every row instead of materializing the whole list
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(expenseService.streamAllExpenses());
+        }
+    }
+
+    @GetMapping("/slice")
+    @Operation(summary = "Get expenses by cursor", description = "Keyset-paginated expenses, newest first. " +
+            "Pass nextCursor from the previous response as cursor. Deep pages are as fast as the first one.")
+    public ResponseEntity<SliceResponse<Expense>> getExpenseSlice(
+            @Parameter(description = "Cursor from the previous response; omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-500)", example = "50") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Also return the total number of expenses (cached briefly)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new ValidationException("size must be between 1 and " + MAX_SLICE_SIZE);
         }
+        return ResponseEntity.ok(expenseService.getExpenseSlice(cursor, size, includeTotal));
     }
 
     @GetMapping("/{id}")
@@ -66,6 +88,14 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create expenses in bulk", description = "Create up to app.expenses.bulk-max-size expenses in one request. " +
+            "All expenses are validated first and either all or none are created. Returns the created ids in input order.")
+    public ResponseEntity<ExpenseBulkResponse> createExpenses(@RequestBody List<Expense> expenses) {
+        List<Long> ids = expenseService.createExpenses(expenses);
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ExpenseBulkResponse(ids.size(), ids));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update expense", description = "Update an existing expense")
     public ResponseEntity<Expense> updateExpense(@PathVariable Long id, @Valid @RequestBody Expense expenseDetails) {
@@ -5,10 +5,10 @@ import com.expensetracker.service.IncomeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/income")
@@ -22,9 +22,10 @@ public class IncomeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Income>> getAllIncome() {
-        List<Income> incomeList = incomeService.getAllIncome();
-        return ResponseEntity.ok(incomeList);
+    public ResponseEntity<StreamingResponseBody> getAllIncome() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(incomeService.streamAllIncome());
     }
 
     @GetMapping("/{id}")
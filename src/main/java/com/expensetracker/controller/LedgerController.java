@@ -1,33 +1,62 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.AgingReport;
+import com.expensetracker.dto.CursorPageResponse;
 import com.expensetracker.dto.LedgerEntryDto;
 import com.expensetracker.dto.LedgerEntryRequest;
+import com.expensetracker.dto.LedgerImportResult;
+import com.expensetracker.dto.LedgerStatement;
 import com.expensetracker.dto.LedgerSummary;
+import com.expensetracker.dto.MessageResponse;
 import com.expensetracker.dto.OutstandingBalanceResponse;
+import com.expensetracker.entity.InterestAccrual;
 import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.LedgerEvent;
 import com.expensetracker.entity.Party;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.PartyBalanceRepository;
+import com.expensetracker.service.LedgerAgingService;
+import com.expensetracker.service.LedgerExportService;
+import com.expensetracker.service.LedgerImportService;
 import com.expensetracker.service.LedgerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/ledger")
 public class LedgerController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final LedgerService ledgerService;
+    private final LedgerImportService ledgerImportService;
+    private final LedgerExportService ledgerExportService;
+    private final LedgerAgingService ledgerAgingService;
 
     @Autowired
-    public LedgerController(LedgerService ledgerService) {
+    public LedgerController(LedgerService ledgerService, LedgerImportService ledgerImportService,
+                            LedgerExportService ledgerExportService, LedgerAgingService ledgerAgingService) {
         this.ledgerService = ledgerService;
+        this.ledgerImportService = ledgerImportService;
+        this.ledgerExportService = ledgerExportService;
+        this.ledgerAgingService = ledgerAgingService;
     }
 
     @PostMapping("/entries")
@@ -44,6 +73,7 @@ public class LedgerController {
             ledgerEntry.setDescription(request.getDescription());
             ledgerEntry.setReferenceNumber(request.getReferenceNumber());
             ledgerEntry.setPaymentMode(request.getPaymentMode());
+            ledgerEntry.setDueDate(request.getDueDate());
             
             LedgerEntry createdEntry = ledgerService.createLedgerEntry(ledgerEntry);
             return ResponseEntity.status(HttpStatus.CREATED).body(LedgerEntryDto.fromEntity(createdEntry));
@@ -52,6 +82,23 @@ public class LedgerController {
         }
     }
 
+    /**
+     * Bulk import of ledger entries. The body is streamed row by row: CSV with a header row
+     * (partyId,transactionType,amount,transactionDate,description,referenceNumber,paymentMode)
+     * or NDJSON with one LedgerEntryRequest object per line. Invalid rows are reported and skipped.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<LedgerImportResult> importLedgerEntries(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        LedgerImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? LedgerImportService.Format.CSV
+                : LedgerImportService.Format.NDJSON;
+        LedgerImportResult result = ledgerImportService.importEntries(
+                new InputStreamReader(body, StandardCharsets.UTF_8), format);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/entries/{id}")
     public ResponseEntity<LedgerEntryDto> getLedgerEntryById(@PathVariable Long id) {
         return ledgerService.getLedgerEntryById(id)
@@ -76,6 +123,7 @@ public class LedgerController {
             entryDetails.setDescription(request.getDescription());
             entryDetails.setReferenceNumber(request.getReferenceNumber());
             entryDetails.setPaymentMode(request.getPaymentMode());
+            entryDetails.setDueDate(request.getDueDate());
             
             LedgerEntry updatedEntry = ledgerService.updateLedgerEntry(id, entryDetails);
             return ResponseEntity.ok(LedgerEntryDto.fromEntity(updatedEntry));
@@ -107,6 +155,24 @@ public class LedgerController {
         }
     }
 
+    @GetMapping("/parties/{partyId}/entries/page")
+    public ResponseEntity<?> getLedgerEntriesPage(
+            @PathVariable Long partyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new MessageResponse("size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            CursorPageResponse<LedgerEntryDto> page = ledgerService.getLedgerEntriesPage(partyId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/parties/{partyId}/entries/date-range")
     public ResponseEntity<List<LedgerEntryDto>> getLedgerEntriesByDateRange(
             @PathVariable Long partyId,
@@ -123,6 +189,22 @@ public class LedgerController {
         }
     }
 
+    @GetMapping("/parties/{partyId}/statement")
+    public ResponseEntity<?> getPartyStatement(
+            @PathVariable Long partyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("startDate must not be after endDate"));
+        }
+        try {
+            LedgerStatement statement = ledgerService.getPartyStatement(partyId, startDate, endDate);
+            return ResponseEntity.ok(statement);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/parties/{partyId}/summary")
     public ResponseEntity<LedgerSummary> getPartyLedgerSummary(@PathVariable Long partyId) {
         try {
@@ -143,5 +225,100 @@ public class LedgerController {
             return ResponseEntity.notFound().build();
         }
     }
-}
 
+    @GetMapping("/parties/{partyId}/events")
+    public ResponseEntity<?> getPartyEvents(
+            @PathVariable Long partyId,
+            @RequestParam(defaultValue = "0") long afterSequence,
+            @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(new MessageResponse("size must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        try {
+            List<LedgerEvent> events = ledgerService.getPartyEvents(partyId, afterSequence, size);
+            return ResponseEntity.ok(events);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/parties/{partyId}/interest")
+    public ResponseEntity<?> getPartyInterestAccruals(@PathVariable Long partyId) {
+        try {
+            List<InterestAccrual> accruals = ledgerService.getPartyInterestAccruals(partyId);
+            return ResponseEntity.ok(accruals);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/parties/{partyId}/export")
+    public ResponseEntity<?> exportPartyLedger(
+            @PathVariable Long partyId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        LedgerExportService.Format exportFormat = parseExportFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("format must be csv or ndjson"));
+        }
+        try {
+            StreamingResponseBody body = ledgerExportService.exportParty(partyId, exportFormat, gzip);
+            return exportResponse(body, "ledger-party-" + partyId, exportFormat, gzip);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAllLedgers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        LedgerExportService.Format exportFormat = parseExportFormat(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("format must be csv or ndjson"));
+        }
+        StreamingResponseBody body = ledgerExportService.exportAllParties(exportFormat, gzip);
+        return exportResponse(body, "ledger-all-parties", exportFormat, gzip);
+    }
+
+    private LedgerExportService.Format parseExportFormat(String format) {
+        try {
+            return LedgerExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(StreamingResponseBody body, String baseName,
+                                                                 LedgerExportService.Format format, boolean gzip) {
+        String extension = format == LedgerExportService.Format.CSV ? ".csv" : ".ndjson";
+        MediaType contentType = format == LedgerExportService.Format.CSV
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+        if (gzip) {
+            extension += ".gz";
+            contentType = MediaType.parseMediaType("application/gzip");
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + baseName + extension + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/aging")
+    public ResponseEntity<AgingReport> getAgingReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(ledgerAgingService.getAgingReport(asOf));
+    }
+
+    @GetMapping("/balances/verify")
+    public ResponseEntity<List<PartyBalanceRepository.BalanceDrift>> verifyPartyBalances() {
+        return ResponseEntity.ok(ledgerService.verifyPartyBalances());
+    }
+
+    @PostMapping("/balances/rebuild")
+    public ResponseEntity<MessageResponse> rebuildPartyBalances() {
+        ledgerService.rebuildPartyBalances();
+        return ResponseEntity.ok(new MessageResponse("Party balances rebuilt from ledger entries"));
+    }
+}
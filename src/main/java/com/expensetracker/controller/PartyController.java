@@ -1,14 +1,21 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.MessageResponse;
+import com.expensetracker.dto.PartyMergeRequest;
+import com.expensetracker.dto.PartyWithBalanceDto;
 import com.expensetracker.entity.Party;
+import com.expensetracker.exception.ValidationException;
 import com.expensetracker.service.PartyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/parties")
@@ -22,8 +29,26 @@ public class PartyController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Party>> getAllParties() {
-        List<Party> parties = partyService.getAllParties();
+    public ResponseEntity<StreamingResponseBody> getAllParties() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(partyService.streamAllParties());
+    }
+
+    @GetMapping("/with-balances")
+    public ResponseEntity<?> getPartiesWithBalances(
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        PartyService.BalanceSort balanceSort;
+        try {
+            balanceSort = PartyService.BalanceSort.valueOf(sort.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("sort must be name, balance or last-transaction"));
+        }
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            return ResponseEntity.badRequest().body(new MessageResponse("direction must be asc or desc"));
+        }
+        List<PartyWithBalanceDto> parties = partyService.getPartiesWithBalances(balanceSort, direction.equalsIgnoreCase("desc"));
         return ResponseEntity.ok(parties);
     }
 
@@ -60,6 +85,18 @@ public class PartyController {
         }
     }
 
+    @PostMapping("/{id}/merge")
+    public ResponseEntity<?> mergeParties(@PathVariable Long id, @Valid @RequestBody PartyMergeRequest request) {
+        try {
+            Party mergedParty = partyService.mergeParties(id, request.getSourcePartyIds());
+            return ResponseEntity.ok(mergedParty);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteParty(@PathVariable Long id) {
         try {
@@ -6,11 +6,12 @@ import com.expensetracker.entity.SavingsGoal;
 import com.expensetracker.service.SavingsGoalService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,8 +43,10 @@ public class SavingsGoalController {
             );
             return ResponseEntity.ok(response);
         } else {
-            List<SavingsGoal> goals = savingsGoalService.getAllSavingsGoals();
-            return ResponseEntity.ok(goals);
+            // Unpaged: stream every row instead of materializing the whole list
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(savingsGoalService.streamAllSavingsGoals());
         }
     }
 
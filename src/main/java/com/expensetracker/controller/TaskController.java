@@ -6,11 +6,12 @@ import com.expensetracker.entity.Task;
 import com.expensetracker.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,8 +43,10 @@ public class TaskController {
             );
             return ResponseEntity.ok(response);
         } else {
-            List<Task> tasks = taskService.getAllTasks();
-            return ResponseEntity.ok(tasks);
+            // Unpaged: stream every row instead of materializing the whole list
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(taskService.streamAllTasks());
         }
     }
 
@@ -0,0 +1,36 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgingReport {
+    private LocalDate asOf;
+    private BigDecimal days0To30 = BigDecimal.ZERO;
+    private BigDecimal days31To60 = BigDecimal.ZERO;
+    private BigDecimal days61To90 = BigDecimal.ZERO;
+    private BigDecimal over90Days = BigDecimal.ZERO;
+    private BigDecimal totalDue = BigDecimal.ZERO;
+    private List<PartyAging> parties = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartyAging {
+        private Long partyId;
+        private String partyName;
+        private BigDecimal days0To30;
+        private BigDecimal days31To60;
+        private BigDecimal days61To90;
+        private BigDecimal over90Days;
+        private BigDecimal totalDue;
+    }
+}
@@ -0,0 +1,27 @@
+package com.expensetracker.dto;
+
+import com.expensetracker.entity.Budget;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetUtilization {
+    private Long budgetId;
+    private String category;
+    private Budget.BudgetType budgetType;
+    private Budget.BudgetPeriod period;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal amount;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    // Null when the budget amount is zero
+    private BigDecimal percentUsed;
+    private boolean overBudget;
+}
@@ -0,0 +1,19 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryExpenseTotal {
+    // Null for uncategorized expenses
+    private String category;
+    private BigDecimal total;
+    private long count;
+    // Share of all spending in the range, in percent
+    private BigDecimal share;
+}
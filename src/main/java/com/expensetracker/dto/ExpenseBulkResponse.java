@@ -0,0 +1,16 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBulkResponse {
+    private int createdCount;
+    // Ids of the created expenses, in the order they were submitted
+    private List<Long> ids;
+}
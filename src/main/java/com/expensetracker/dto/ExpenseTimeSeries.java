@@ -0,0 +1,36 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spending over time in columnar form: each series has one total and one count per entry of buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseTimeSeries {
+    private String granularity;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean byCategory;
+    // First day of each bucket; weeks start on Monday, so the first bucket may begin before startDate
+    private List<LocalDate> buckets = new ArrayList<>();
+    private List<Series> series = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Series {
+        // Null for the overall series and for uncategorized expenses
+        private String category;
+        private List<BigDecimal> totals;
+        private List<Long> counts;
+    }
+}
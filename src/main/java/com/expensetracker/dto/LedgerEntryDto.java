@@ -23,6 +23,7 @@ public class LedgerEntryDto {
     private String referenceNumber;
     private String paymentMode;
     private BigDecimal runningBalance;
+    private LocalDate dueDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -38,6 +39,7 @@ public class LedgerEntryDto {
         dto.setReferenceNumber(entry.getReferenceNumber());
         dto.setPaymentMode(entry.getPaymentMode());
         dto.setRunningBalance(entry.getRunningBalance());
+        dto.setDueDate(entry.getDueDate());
         dto.setCreatedAt(entry.getCreatedAt());
         dto.setUpdatedAt(entry.getUpdatedAt());
         return dto;
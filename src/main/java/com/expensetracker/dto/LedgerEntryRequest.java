@@ -37,6 +37,9 @@ public class LedgerEntryRequest {
     
     private String paymentMode;
     
+    // Optional; defaults to the party's credit terms for purchases
+    private LocalDate dueDate;
+    
     // Helper method to get party ID from either format
     public Long getPartyIdValue() {
         if (partyId != null) {
@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerStatement {
+    private Long partyId;
+    private String partyName;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    // True when a deferred running-balance recompute was still pending when the data was read
+    private boolean balanceStale;
+    private List<LedgerEntryDto> transactions;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Data
@@ -16,8 +17,13 @@ public class LedgerSummary {
     private BigDecimal openingBalance;
     private BigDecimal totalPurchases;
     private BigDecimal totalPayments;
+    private BigDecimal totalAdjustments;
     private BigDecimal outstandingBalance;
     private Integer transactionCount;
+    private LocalDate firstTransactionDate;
+    private LocalDate lastTransactionDate;
+    // True when a deferred running-balance recompute was still pending when the data was read
+    private boolean balanceStale;
     private List<LedgerEntryDto> transactions;
 }
 
@@ -0,0 +1,17 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyMergeRequest {
+
+    @NotEmpty(message = "At least one source party is required")
+    private List<Long> sourcePartyIds;
+}
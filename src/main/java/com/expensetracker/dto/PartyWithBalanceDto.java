@@ -0,0 +1,25 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyWithBalanceDto {
+    private Long id;
+    private String name;
+    private String phone;
+    private String notes;
+    private BigDecimal openingBalance;
+    private BigDecimal outstandingBalance;
+    private Long entryCount;
+    private LocalDate lastTransactionDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
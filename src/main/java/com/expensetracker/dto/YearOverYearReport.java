@@ -0,0 +1,33 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearOverYearReport {
+    private int year;
+    private BigDecimal total = BigDecimal.ZERO;
+    private BigDecimal previousTotal = BigDecimal.ZERO;
+    private BigDecimal change = BigDecimal.ZERO;
+    // Null when the previous year had no spending
+    private BigDecimal changePercent;
+    private List<MonthComparison> months = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthComparison {
+        private int month;
+        private BigDecimal total;
+        private BigDecimal previousTotal;
+        private BigDecimal change;
+        private BigDecimal changePercent;
+    }
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A budget threshold that was reached, stored before the alert is delivered. One row per budget, period
+ * and threshold, so an alert is sent once even if several nodes evaluate the same write.
+ */
+@Entity
+@Table(name = "budget_alerts", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"budget_id", "period_start", "threshold"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Budget.BudgetPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    // Percent of the budget amount, e.g. 80 or 100
+    @Column(nullable = false)
+    private Integer threshold;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "triggered_at", nullable = false)
+    private LocalDateTime triggeredAt;
+}
@@ -0,0 +1,72 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Final utilization of a budget for one ended period, written by the rollover job. One row per budget
+ * and period, so past performance is read from here instead of being recomputed from expenses.
+ */
+@Entity
+@Table(name = "budget_periods", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"budget_id", "period_start"})
+}, indexes = {
+    @Index(name = "idx_budget_periods_user_start", columnList = "user_id, period_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetPeriodSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "budget_type", nullable = false, length = 20)
+    private Budget.BudgetType budgetType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Budget.BudgetPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal spent;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal remaining;
+
+    // Null when the budget amount was zero
+    @Column(name = "percent_used", precision = 19, scale = 2)
+    private BigDecimal percentUsed;
+
+    @Column(name = "over_budget", nullable = false)
+    private boolean overBudget;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
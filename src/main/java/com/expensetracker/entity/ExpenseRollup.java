@@ -0,0 +1,48 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized expense totals per user, month and category, kept in step with expenses by
+ * ExpenseService in the same transaction as every expense write. Uncategorized expenses are
+ * stored under an empty category so the unique key covers them.
+ */
+@Entity
+@Table(name = "expense_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "period_month", "category"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month the expenses were created in
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth;
+
+    @Column(nullable = false, length = 100)
+    private String category = "";
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
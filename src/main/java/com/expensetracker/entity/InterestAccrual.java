@@ -0,0 +1,54 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Interest charged to a party for one calendar month. Written together with its ADJUSTMENT ledger entry,
+ * one row per party and month, so an accrual run never charges the same month twice. Months without
+ * overdue balance are recorded with a zero amount and no ledger entry.
+ */
+@Entity
+@Table(name = "interest_accruals", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"party_id", "period_month"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestAccrual {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month the interest is charged for
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth;
+
+    @Column(name = "interest_rate", nullable = false, precision = 7, scale = 4)
+    private BigDecimal interestRate;
+
+    @Column(name = "average_overdue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal averageOverdue;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "ledger_entry_id")
+    private Long ledgerEntryId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
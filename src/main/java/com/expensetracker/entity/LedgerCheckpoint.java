@@ -0,0 +1,41 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Closing balance of a party ledger at the end of a calendar month that has entries.
+ * Refreshed by RunningBalanceService whenever running balances from that month onwards change.
+ */
+@Entity
+@Table(name = "ledger_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"party_id", "period_month"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "party_id", nullable = false)
+    private Long partyId;
+
+    // First day of the month this checkpoint closes
+    @Column(name = "period_month", nullable = false)
+    private LocalDate periodMonth;
+
+    @Column(name = "closing_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingBalance;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
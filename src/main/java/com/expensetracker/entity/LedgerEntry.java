@@ -12,7 +12,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ledger_entries")
+@Table(name = "ledger_entries", indexes = {
+    @Index(name = "idx_ledger_party_date", columnList = "party_id, transaction_date, id"),
+    @Index(name = "idx_ledger_due_date", columnList = "due_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +56,13 @@ public class LedgerEntry {
     @Column(name = "running_balance", precision = 19, scale = 2)
     private BigDecimal runningBalance;
 
+    // Only purchases carry a due date
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "reminder_sent_at")
+    private LocalDateTime reminderSentAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -74,6 +84,13 @@ public class LedgerEntry {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Effect of this entry on the outstanding balance: payments reduce it, all other types increase it.
+     */
+    public BigDecimal signedAmount() {
+        return transactionType == TransactionType.PAYMENT ? amount.negate() : amount;
+    }
+
     public enum TransactionType {
         PURCHASE,    // Credit - money to be paid (increases outstanding)
         PAYMENT,     // Debit - installment paid (decreases outstanding)
@@ -0,0 +1,89 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, append-only record of a change to a party ledger. Events are numbered per party;
+ * the party balance is the sum of signedAmount over all of its events.
+ */
+@Entity
+@Table(name = "ledger_events", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"party_id", "sequence_number"})
+}, indexes = {
+    @Index(name = "idx_ledger_events_entry", columnList = "entry_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "party_id", nullable = false, updatable = false)
+    private Long partyId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "sequence_number", nullable = false, updatable = false)
+    private Long sequenceNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30, updatable = false)
+    private EventType eventType;
+
+    // Ledger entry the event belongs to; null for balance-level events
+    @Column(name = "entry_id", updatable = false)
+    private Long entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", length = 20, updatable = false)
+    private LedgerEntry.TransactionType transactionType;
+
+    @Column(precision = 19, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    // Effect of the event on the party balance
+    @Column(name = "signed_amount", nullable = false, precision = 19, scale = 2, updatable = false)
+    private BigDecimal signedAmount;
+
+    @Column(name = "transaction_date", updatable = false)
+    private LocalDate transactionDate;
+
+    @Column(length = 500, updatable = false)
+    private String description;
+
+    @Column(name = "reference_number", length = 100, updatable = false)
+    private String referenceNumber;
+
+    @Column(name = "payment_mode", length = 50, updatable = false)
+    private String paymentMode;
+
+    // Event compensated by an ENTRY_REVERSED event
+    @Column(name = "reverses_event_id", updatable = false)
+    private Long reversesEventId;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum EventType {
+        BALANCE_FORWARD,  // Balance carried over when the journal starts for an existing party
+        ENTRY_RECORDED,   // Entry created, or the new version of an edited entry
+        ENTRY_REVERSED,   // Compensates an earlier ENTRY_RECORDED (edit or delete)
+        PARTY_MERGED      // Balance of parties merged into this one
+    }
+}
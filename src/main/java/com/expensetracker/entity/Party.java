@@ -1,12 +1,17 @@
 package com.expensetracker.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -38,6 +43,22 @@ public class Party {
     @Column(name = "opening_balance", precision = 19, scale = 2)
     private java.math.BigDecimal openingBalance = java.math.BigDecimal.ZERO;
 
+    // Credit terms: purchases without an explicit due date are due this many days after the transaction
+    @Min(value = 0, message = "Credit days cannot be negative")
+    @Column(name = "credit_days")
+    private Integer creditDays;
+
+    // Annual interest rate (percent) charged monthly on the overdue part of the balance; null for none
+    @DecimalMin(value = "0.0", message = "Interest rate cannot be negative")
+    @DecimalMax(value = "100.0", message = "Interest rate cannot exceed 100%")
+    @Column(name = "interest_rate", precision = 7, scale = 4)
+    private java.math.BigDecimal interestRate;
+
+    // Day the current interest rate was set; interest is only charged for months starting on or after it
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "interest_rate_since")
+    private LocalDate interestRateSince;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
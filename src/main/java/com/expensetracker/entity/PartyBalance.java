@@ -0,0 +1,52 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Materialized per-party totals, kept in step with ledger_entries by LedgerService
+ * in the same transaction as every ledger write.
+ */
+@Entity
+@Table(name = "party_balances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartyBalance {
+
+    @Id
+    @Column(name = "party_id")
+    private Long partyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "total_purchases", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalPurchases = BigDecimal.ZERO;
+
+    @Column(name = "total_payments", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalPayments = BigDecimal.ZERO;
+
+    @Column(name = "total_adjustments", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAdjustments = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount = 0L;
+
+    @Column(name = "outstanding_balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal outstandingBalance = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.expensetracker.event;
+
+/**
+ * Published when budgets of a user are created, edited or deleted, so cached budget definitions are dropped.
+ */
+public record BudgetChangedEvent(Long userId) {
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published when expenses of a user are created, edited or deleted, with the signed change in spending
+ * per category and month. Listeners react after the publishing transaction commits.
+ */
+public record ExpenseChangedEvent(Long userId, List<SpendDelta> deltas) {
+
+    /**
+     * @param category expense category, null for uncategorized
+     * @param month    first day of the month the spending falls in
+     * @param amount   signed change in spending
+     */
+    public record SpendDelta(String category, LocalDate month, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.event;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published when ledger entries or parties of a user change. Listeners that maintain derived views
+ * react after the publishing transaction commits.
+ */
+public record LedgerChangedEvent(Long userId, Set<Long> partyIds) {
+
+    public static LedgerChangedEvent of(Long userId, Long... partyIds) {
+        return new LedgerChangedEvent(userId, Set.copyOf(List.of(partyIds)));
+    }
+}
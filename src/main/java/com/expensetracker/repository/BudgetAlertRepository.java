@@ -0,0 +1,18 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.BudgetAlert;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    List<BudgetAlert> findByUserIdOrderByTriggeredAtDesc(Long userId, Pageable limit);
+
+    boolean existsByBudgetIdAndPeriodStartAndThresholdGreaterThanEqual(Long budgetId, LocalDate periodStart,
+                                                                        Integer threshold);
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.BudgetPeriodSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BudgetPeriodSnapshotRepository extends JpaRepository<BudgetPeriodSnapshot, Long> {
+
+    // Range on uk (budget_id, period_start)
+    List<BudgetPeriodSnapshot> findByBudgetIdAndUserIdOrderByPeriodStartDesc(Long budgetId, Long userId);
+
+    // Range on idx_budget_periods_user_start
+    List<BudgetPeriodSnapshot> findByUserIdAndPeriodStartBetweenOrderByPeriodStartDesc(Long userId,
+                                                                                      LocalDate from,
+                                                                                      LocalDate to);
+}
@@ -2,18 +2,29 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Budget;
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
     List<Budget> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Budget> streamByUser(User user);
     
     @EntityGraph(attributePaths = {"user"})
     Page<Budget> findByUser(User user, Pageable pageable);
@@ -24,5 +35,19 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     boolean existsByIdAndUser(Long id, User user);
     Optional<Budget> findByUserAndCategoryAndPeriod(User user, String category, Budget.BudgetPeriod period);
     boolean existsByUserAndCategoryAndPeriod(User user, String category, Budget.BudgetPeriod period);
+
+    /**
+     * Re-derives the amount of every percentage budget of the user in one statement, monthly budgets from
+     * monthlyIncome and yearly budgets from yearlyIncome. Rounds half up like Budget.calculateAmountFromPercentage.
+     * Budgets whose period has no income yet keep their amount, which may come from a client-supplied monthlyIncome.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE budgets SET amount = ROUND(CASE period WHEN 'yearly' THEN :yearlyIncome ELSE :monthlyIncome END " +
+            "* percentage / 100, 2), updated_at = NOW(6) " +
+            "WHERE user_id = :userId AND budget_type = 'percentage' AND percentage IS NOT NULL " +
+            "AND CASE period WHEN 'yearly' THEN :yearlyIncome ELSE :monthlyIncome END > 0", nativeQuery = true)
+    int updatePercentageAmounts(@Param("userId") Long userId,
+                                @Param("monthlyIncome") BigDecimal monthlyIncome,
+                                @Param("yearlyIncome") BigDecimal yearlyIncome);
 }
 
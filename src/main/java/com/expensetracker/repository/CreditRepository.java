@@ -2,15 +2,22 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Credit;
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CreditRepository extends JpaRepository<Credit, Long> {
     List<Credit> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Credit> streamByUser(User user);
     Optional<Credit> findByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
 }
@@ -2,11 +2,14 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Expense;
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,10 +17,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Expense> streamByUser(User user);
     
     @EntityGraph(attributePaths = {"user"})
     Page<Expense> findByUser(User user, Pageable pageable);
@@ -33,6 +40,28 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
                                          @Param("endDate") java.time.LocalDateTime endDate, 
                                          Pageable pageable);
     
+    // Keyset pages, newest first; (created_at DESC, id) is the order of idx_expenses_user_date.
+    // Legacy rows without created_at sort last (MySQL puts NULLs last in DESC order) and form the tail.
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT e FROM Expense e WHERE e.user = :user ORDER BY e.createdAt DESC, e.id ASC")
+    List<Expense> findFirstSlice(@Param("user") User user, Pageable limit);
+
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT e FROM Expense e WHERE e.user = :user " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id > :id) OR e.createdAt IS NULL) " +
+           "ORDER BY e.createdAt DESC, e.id ASC")
+    List<Expense> findSliceAfter(@Param("user") User user,
+                                 @Param("createdAt") java.time.LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable limit);
+
+    // Continues within the NULL created_at tail
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT e FROM Expense e WHERE e.user = :user AND e.createdAt IS NULL AND e.id > :id ORDER BY e.id ASC")
+    List<Expense> findUndatedSliceAfter(@Param("user") User user, @Param("id") Long id, Pageable limit);
+
+    long countByUser(User user);
+
     @EntityGraph(attributePaths = {"user"})
     Optional<Expense> findByIdAndUser(Long id, User user);
     
@@ -0,0 +1,66 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ExpenseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseRollup, Long> {
+
+    @Query("SELECT r.periodMonth AS periodMonth, SUM(r.total) AS total, SUM(r.expenseCount) AS expenseCount " +
+           "FROM ExpenseRollup r WHERE r.userId = :userId AND r.periodMonth BETWEEN :fromMonth AND :toMonth " +
+           "GROUP BY r.periodMonth ORDER BY r.periodMonth")
+    List<MonthTotal> findMonthTotals(@Param("userId") Long userId,
+                                     @Param("fromMonth") LocalDate fromMonth,
+                                     @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT r.category AS category, SUM(r.total) AS total, SUM(r.expenseCount) AS expenseCount " +
+           "FROM ExpenseRollup r WHERE r.userId = :userId AND r.periodMonth BETWEEN :fromMonth AND :toMonth " +
+           "GROUP BY r.category ORDER BY SUM(r.total) DESC")
+    List<CategoryTotal> findCategoryTotals(@Param("userId") Long userId,
+                                           @Param("fromMonth") LocalDate fromMonth,
+                                           @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT r.periodMonth AS periodMonth, r.category AS category, r.total AS total, r.expenseCount AS expenseCount " +
+           "FROM ExpenseRollup r WHERE r.userId = :userId AND r.periodMonth BETWEEN :fromMonth AND :toMonth")
+    List<MonthCategoryTotal> findMonthCategoryTotals(@Param("userId") Long userId,
+                                                     @Param("fromMonth") LocalDate fromMonth,
+                                                     @Param("toMonth") LocalDate toMonth);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM expense_rollups WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO expense_rollups (user_id, period_month, category, total, expense_count, updated_at) " +
+            "SELECT user_id, DATE_FORMAT(created_at, '%Y-%m-01'), COALESCE(category, ''), SUM(amount), COUNT(*), NOW(6) " +
+            "FROM expenses WHERE user_id = :userId AND created_at IS NOT NULL " +
+            "GROUP BY user_id, DATE_FORMAT(created_at, '%Y-%m-01'), COALESCE(category, '')", nativeQuery = true)
+    int insertFromExpenses(@Param("userId") Long userId);
+
+    interface MonthTotal {
+        LocalDate getPeriodMonth();
+        BigDecimal getTotal();
+        Long getExpenseCount();
+    }
+
+    interface MonthCategoryTotal {
+        LocalDate getPeriodMonth();
+        String getCategory();
+        BigDecimal getTotal();
+        Long getExpenseCount();
+    }
+
+    interface CategoryTotal {
+        String getCategory();
+        BigDecimal getTotal();
+        Long getExpenseCount();
+    }
+}
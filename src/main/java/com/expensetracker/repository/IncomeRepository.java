@@ -2,15 +2,22 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Income;
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface IncomeRepository extends JpaRepository<Income, Long> {
     List<Income> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Income> streamByUser(User user);
     Optional<Income> findByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
 }
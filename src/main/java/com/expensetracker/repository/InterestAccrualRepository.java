@@ -0,0 +1,16 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.InterestAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, Long> {
+
+    List<InterestAccrual> findByPartyIdOrderByPeriodMonthDesc(Long partyId);
+
+    List<InterestAccrual> findByPartyIdIn(Collection<Long> partyIds);
+}
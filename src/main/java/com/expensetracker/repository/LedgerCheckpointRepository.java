@@ -0,0 +1,46 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+
+    Optional<LedgerCheckpoint> findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(Long partyId, LocalDate periodMonth);
+
+    boolean existsByPartyId(Long partyId);
+
+    /**
+     * Removes checkpoints from the given month onwards; a null month removes all checkpoints of the party.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM ledger_checkpoints WHERE party_id = :partyId " +
+            "AND (:fromMonth IS NULL OR period_month >= :fromMonth)", nativeQuery = true)
+    int deleteFromMonth(@Param("partyId") Long partyId, @Param("fromMonth") LocalDate fromMonth);
+
+    /**
+     * Writes one checkpoint per month from the given month onwards, taking the running balance
+     * of the last entry of each month as its closing balance.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO ledger_checkpoints (party_id, period_month, closing_balance, updated_at) " +
+            "SELECT party_id, period_month, running_balance, NOW(6) FROM (" +
+            "SELECT party_id, DATE_SUB(transaction_date, INTERVAL DAYOFMONTH(transaction_date) - 1 DAY) AS period_month, " +
+            "running_balance, ROW_NUMBER() OVER (PARTITION BY YEAR(transaction_date), MONTH(transaction_date) " +
+            "ORDER BY transaction_date DESC, id DESC) AS position_from_end " +
+            "FROM ledger_entries WHERE party_id = :partyId " +
+            "AND (:fromMonth IS NULL OR transaction_date >= :fromMonth)" +
+            ") month_ends WHERE position_from_end = 1", nativeQuery = true)
+    int insertFromMonth(@Param("partyId") Long partyId, @Param("fromMonth") LocalDate fromMonth);
+
+    @Modifying
+    @Query("DELETE FROM LedgerCheckpoint lc WHERE lc.partyId = :partyId")
+    int deleteByPartyId(@Param("partyId") Long partyId);
+}
@@ -1,14 +1,20 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.LedgerEntryDto;
 import com.expensetracker.entity.LedgerEntry;
 import com.expensetracker.entity.Party;
 import com.expensetracker.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,16 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long>
     List<LedgerEntry> findByPartyOrderByTransactionDateAscIdAsc(Party party);
     Optional<LedgerEntry> findByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
+
+    @Query("SELECT le.party.id FROM LedgerEntry le WHERE le.id = :id AND le.user = :user")
+    Optional<Long> findPartyIdByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    boolean existsByPartyAndTransactionDateBefore(Party party, LocalDate transactionDate);
+
+    // Net effect of the party's entries before the given date: purchases and adjustments add, payments subtract
+    @Query(value = "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'PAYMENT' THEN -amount ELSE amount END), 0) " +
+            "FROM ledger_entries WHERE party_id = :partyId AND transaction_date < :transactionDate", nativeQuery = true)
+    BigDecimal sumSignedAmountsBefore(@Param("partyId") Long partyId, @Param("transactionDate") LocalDate transactionDate);
     
     @Query("SELECT le FROM LedgerEntry le WHERE le.party = :party AND le.transactionDate BETWEEN :startDate AND :endDate ORDER BY le.transactionDate ASC, le.id ASC")
     List<LedgerEntry> findByPartyAndTransactionDateBetween(
@@ -28,10 +44,88 @@ public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long>
         @Param("endDate") LocalDate endDate
     );
     
-    @Query("SELECT COALESCE(SUM(le.amount), 0) FROM LedgerEntry le WHERE le.party = :party AND le.transactionType = 'PURCHASE'")
-    java.math.BigDecimal getTotalPurchases(@Param("party") Party party);
-    
-    @Query("SELECT COALESCE(SUM(le.amount), 0) FROM LedgerEntry le WHERE le.party = :party AND le.transactionType = 'PAYMENT'")
-    java.math.BigDecimal getTotalPayments(@Param("party") Party party);
-}
+    /**
+     * Per-type totals, entry count and date span of a party ledger in a single pass.
+     */
+    @Query("SELECT " +
+            "COALESCE(SUM(CASE WHEN le.transactionType = com.expensetracker.entity.LedgerEntry.TransactionType.PURCHASE THEN le.amount ELSE 0 END), 0) AS totalPurchases, " +
+            "COALESCE(SUM(CASE WHEN le.transactionType = com.expensetracker.entity.LedgerEntry.TransactionType.PAYMENT THEN le.amount ELSE 0 END), 0) AS totalPayments, " +
+            "COALESCE(SUM(CASE WHEN le.transactionType = com.expensetracker.entity.LedgerEntry.TransactionType.ADJUSTMENT THEN le.amount ELSE 0 END), 0) AS totalAdjustments, " +
+            "COUNT(le) AS entryCount, " +
+            "MIN(le.transactionDate) AS firstTransactionDate, " +
+            "MAX(le.transactionDate) AS lastTransactionDate " +
+            "FROM LedgerEntry le WHERE le.party = :party")
+    LedgerTotals summarizeByParty(@Param("party") Party party);
+
+    @Query("SELECT new com.expensetracker.dto.LedgerEntryDto(le.id, p.id, p.name, le.transactionType, le.amount, " +
+            "le.transactionDate, le.description, le.referenceNumber, le.paymentMode, le.runningBalance, le.dueDate, le.createdAt, le.updatedAt) " +
+            "FROM LedgerEntry le JOIN le.party p WHERE le.party = :party ORDER BY le.transactionDate ASC, le.id ASC")
+    List<LedgerEntryDto> findDtosByParty(@Param("party") Party party);
+
+    /**
+     * Moves all entries of the source parties to the target party in one statement (party merge).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LedgerEntry le SET le.party = :target, le.updatedAt = :now WHERE le.party.id IN :sourceIds AND le.user = :user")
+    int reassignParty(@Param("sourceIds") Collection<Long> sourceIds,
+                      @Param("target") Party target,
+                      @Param("user") User user,
+                      @Param("now") LocalDateTime now);
+
+    @Query("SELECT le FROM LedgerEntry le WHERE le.party = :party ORDER BY le.transactionDate ASC, le.id ASC")
+    List<LedgerEntry> findFirstEntries(@Param("party") Party party, Pageable pageable);
+
+    @Query("SELECT le FROM LedgerEntry le WHERE le.party = :party AND (le.transactionDate > :transactionDate OR (le.transactionDate = :transactionDate AND le.id > :id)) ORDER BY le.transactionDate ASC, le.id ASC")
+    List<LedgerEntry> findFollowingEntries(
+        @Param("party") Party party,
+        @Param("transactionDate") LocalDate transactionDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query("SELECT le FROM LedgerEntry le WHERE le.party = :party AND (le.transactionDate < :transactionDate OR (le.transactionDate = :transactionDate AND le.id < :id)) ORDER BY le.transactionDate DESC, le.id DESC")
+    List<LedgerEntry> findPrecedingEntries(
+        @Param("party") Party party,
+        @Param("transactionDate") LocalDate transactionDate,
+        @Param("id") Long id,
+        Pageable pageable
+    );
 
+    /**
+     * Rewrites running balances of every entry at or after (fromDate, fromId) in a single statement,
+     * seeding the cumulative sum with the balance of the entry just before that position.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE ledger_entries le JOIN (" +
+            "SELECT id, :seed + SUM(CASE WHEN transaction_type = 'PAYMENT' THEN -amount ELSE amount END) " +
+            "OVER (ORDER BY transaction_date, id ROWS UNBOUNDED PRECEDING) AS balance " +
+            "FROM ledger_entries WHERE party_id = :partyId " +
+            "AND (transaction_date > :fromDate OR (transaction_date = :fromDate AND id >= :fromId))" +
+            ") recalculated ON le.id = recalculated.id " +
+            "SET le.running_balance = recalculated.balance", nativeQuery = true)
+    int updateRunningBalancesFrom(
+        @Param("partyId") Long partyId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("fromId") Long fromId,
+        @Param("seed") BigDecimal seed
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE ledger_entries le JOIN (" +
+            "SELECT id, (SELECT COALESCE(opening_balance, 0) FROM parties WHERE id = :partyId) " +
+            "+ SUM(CASE WHEN transaction_type = 'PAYMENT' THEN -amount ELSE amount END) " +
+            "OVER (ORDER BY transaction_date, id ROWS UNBOUNDED PRECEDING) AS balance " +
+            "FROM ledger_entries WHERE party_id = :partyId" +
+            ") recalculated ON le.id = recalculated.id " +
+            "SET le.running_balance = recalculated.balance", nativeQuery = true)
+    int updateAllRunningBalances(@Param("partyId") Long partyId);
+
+    interface LedgerTotals {
+        BigDecimal getTotalPurchases();
+        BigDecimal getTotalPayments();
+        BigDecimal getTotalAdjustments();
+        Long getEntryCount();
+        LocalDate getFirstTransactionDate();
+        LocalDate getLastTransactionDate();
+    }
+}
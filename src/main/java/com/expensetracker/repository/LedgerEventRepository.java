@@ -0,0 +1,47 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.LedgerEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    @Query("SELECT MAX(e.sequenceNumber) FROM LedgerEvent e WHERE e.partyId = :partyId")
+    Optional<Long> findLastSequenceNumber(@Param("partyId") Long partyId);
+
+    @Query("SELECT COALESCE(SUM(e.signedAmount), 0) FROM LedgerEvent e " +
+            "WHERE e.partyId = :partyId AND e.sequenceNumber > :afterSequence AND e.sequenceNumber <= :upToSequence")
+    BigDecimal sumSignedAmounts(@Param("partyId") Long partyId,
+                                @Param("afterSequence") Long afterSequence,
+                                @Param("upToSequence") Long upToSequence);
+
+    Optional<LedgerEvent> findFirstByEntryIdAndEventTypeOrderBySequenceNumberDesc(Long entryId, LedgerEvent.EventType eventType);
+
+    List<LedgerEvent> findByPartyIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(Long partyId, Long sequenceNumber, Pageable pageable);
+
+    /**
+     * Records ENTRY_RECORDED events for the given entries of the party (rows written with plain JDBC),
+     * numbering them in id order after the party's last event.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO ledger_events (party_id, user_id, sequence_number, event_type, entry_id, " +
+            "transaction_type, amount, signed_amount, transaction_date, description, reference_number, payment_mode, created_at) " +
+            "SELECT le.party_id, le.user_id, :lastSequence + ROW_NUMBER() OVER (ORDER BY le.id), 'ENTRY_RECORDED', le.id, " +
+            "le.transaction_type, le.amount, CASE WHEN le.transaction_type = 'PAYMENT' THEN -le.amount ELSE le.amount END, " +
+            "le.transaction_date, le.description, le.reference_number, le.payment_mode, NOW(6) " +
+            "FROM ledger_entries le " +
+            "WHERE le.party_id = :partyId AND le.id IN (:entryIds)", nativeQuery = true)
+    int appendEntryEvents(@Param("partyId") Long partyId,
+                          @Param("entryIds") Collection<Long> entryIds,
+                          @Param("lastSequence") Long lastSequence);
+}
@@ -0,0 +1,13 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long> {
+
+    Optional<LedgerSnapshot> findFirstByPartyIdOrderBySequenceNumberDesc(Long partyId);
+}
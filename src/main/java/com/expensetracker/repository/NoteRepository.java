@@ -2,15 +2,22 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.Note;
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
     List<Note> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Note> streamByUser(User user);
     Optional<Note> findByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
 }
@@ -0,0 +1,83 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.PartyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface PartyBalanceRepository extends JpaRepository<PartyBalance, Long> {
+
+    String AGGREGATE_SELECT = "SELECT p.id AS party_id, p.user_id AS user_id, " +
+            "COALESCE(SUM(CASE WHEN le.transaction_type = 'PURCHASE' THEN le.amount END), 0) AS total_purchases, " +
+            "COALESCE(SUM(CASE WHEN le.transaction_type = 'PAYMENT' THEN le.amount END), 0) AS total_payments, " +
+            "COALESCE(SUM(CASE WHEN le.transaction_type = 'ADJUSTMENT' THEN le.amount END), 0) AS total_adjustments, " +
+            "COUNT(le.id) AS entry_count, " +
+            "COALESCE(p.opening_balance, 0) + COALESCE(SUM(CASE WHEN le.transaction_type = 'PAYMENT' THEN -le.amount ELSE le.amount END), 0) AS outstanding_balance " +
+            "FROM parties p LEFT JOIN ledger_entries le ON le.party_id = p.id ";
+
+    String UPSERT_PREFIX = "INSERT INTO party_balances (party_id, user_id, total_purchases, total_payments, " +
+            "total_adjustments, entry_count, outstanding_balance, updated_at) " +
+            "SELECT agg.*, NOW(6) FROM (";
+
+    String UPSERT_SUFFIX = ") agg ON DUPLICATE KEY UPDATE " +
+            "total_purchases = agg.total_purchases, total_payments = agg.total_payments, " +
+            "total_adjustments = agg.total_adjustments, entry_count = agg.entry_count, " +
+            "outstanding_balance = agg.outstanding_balance, updated_at = NOW(6)";
+
+    /**
+     * Applies signed deltas to a party's totals. Returns 0 when the party has no balance row yet.
+     */
+    @Modifying
+    @Query(value = "UPDATE party_balances SET " +
+            "total_purchases = total_purchases + :purchases, " +
+            "total_payments = total_payments + :payments, " +
+            "total_adjustments = total_adjustments + :adjustments, " +
+            "entry_count = entry_count + :entryCount, " +
+            "outstanding_balance = outstanding_balance + :purchases + :adjustments - :payments, " +
+            "updated_at = NOW(6) " +
+            "WHERE party_id = :partyId", nativeQuery = true)
+    int applyDelta(@Param("partyId") Long partyId,
+                   @Param("purchases") BigDecimal purchases,
+                   @Param("payments") BigDecimal payments,
+                   @Param("adjustments") BigDecimal adjustments,
+                   @Param("entryCount") long entryCount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = UPSERT_PREFIX + AGGREGATE_SELECT + "WHERE p.id = :partyId GROUP BY p.id, p.user_id, p.opening_balance" + UPSERT_SUFFIX,
+            nativeQuery = true)
+    int rebuildForParty(@Param("partyId") Long partyId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = UPSERT_PREFIX + AGGREGATE_SELECT + "WHERE p.user_id = :userId GROUP BY p.id, p.user_id, p.opening_balance" + UPSERT_SUFFIX,
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+
+    /**
+     * Compares stored totals against a fresh aggregate over ledger_entries and returns the parties that differ.
+     */
+    @Query(value = "SELECT agg.party_id AS partyId, pb.outstanding_balance AS storedBalance, " +
+            "agg.outstanding_balance AS actualBalance, pb.entry_count AS storedEntryCount, agg.entry_count AS actualEntryCount " +
+            "FROM (" + AGGREGATE_SELECT + "WHERE p.user_id = :userId GROUP BY p.id, p.user_id, p.opening_balance) agg " +
+            "LEFT JOIN party_balances pb ON pb.party_id = agg.party_id " +
+            "WHERE pb.party_id IS NULL " +
+            "OR pb.total_purchases <> agg.total_purchases " +
+            "OR pb.total_payments <> agg.total_payments " +
+            "OR pb.total_adjustments <> agg.total_adjustments " +
+            "OR pb.entry_count <> agg.entry_count " +
+            "OR pb.outstanding_balance <> agg.outstanding_balance", nativeQuery = true)
+    List<BalanceDrift> findDriftedBalances(@Param("userId") Long userId);
+
+    interface BalanceDrift {
+        Long getPartyId();
+        BigDecimal getStoredBalance();
+        BigDecimal getActualBalance();
+        Long getStoredEntryCount();
+        Long getActualEntryCount();
+    }
+}
@@ -1,18 +1,51 @@
 package com.expensetracker.repository;
 
+import com.expensetracker.dto.PartyWithBalanceDto;
 import com.expensetracker.entity.Party;
 import com.expensetracker.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PartyRepository extends JpaRepository<Party, Long> {
     List<Party> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE_HINT))
+    Stream<Party> streamByUser(User user);
     Optional<Party> findByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
     List<Party> findByUserAndNameContainingIgnoreCase(User user, String name);
+
+    /**
+     * Parties with their maintained balance and last transaction date in one round trip. The MAX subquery
+     * is answered from the (party_id, transaction_date, id) index. Balance fields are null for parties
+     * whose party_balances row has not been built yet.
+     */
+    @Query("SELECT new com.expensetracker.dto.PartyWithBalanceDto(p.id, p.name, p.phone, p.notes, p.openingBalance, " +
+            "pb.outstandingBalance, pb.entryCount, " +
+            "(SELECT MAX(le.transactionDate) FROM LedgerEntry le WHERE le.party = p), " +
+            "p.createdAt, p.updatedAt) " +
+            "FROM Party p LEFT JOIN PartyBalance pb ON pb.partyId = p.id " +
+            "WHERE p.user = :user")
+    List<PartyWithBalanceDto> findWithBalancesByUser(@Param("user") User user);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Party p WHERE p.id = :id AND p.user = :user")
+    Optional<Party> findByIdAndUserForUpdate(@Param("id") Long id, @Param("user") User user);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Party p WHERE p.id = :id")
+    Optional<Party> findByIdForUpdate(@Param("id") Long id);
 }
 
@@ -0,0 +1,17 @@
+package com.expensetracker.repository;
+
+/**
+ * Fetch size for queries whose rows are consumed one at a time, such as the streamByUser repository methods.
+ * MySQL Connector/J buffers the whole result set in memory unless the statement is forward-only with a fetch
+ * size of Integer.MIN_VALUE, in which case it hands rows over one at a time as they arrive.
+ */
+public final class StreamingQueries {
+
+    public static final int FETCH_SIZE = Integer.MIN_VALUE;
+
+    // Query hints take their values as strings
+    public static final String FETCH_SIZE_HINT = "" + FETCH_SIZE;
+
+    private StreamingQueries() {
+    }
+}
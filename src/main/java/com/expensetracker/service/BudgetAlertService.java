@@ -0,0 +1,355 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.BudgetAlert;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.BudgetChangedEvent;
+import com.expensetracker.event.ExpenseChangedEvent;
+import com.expensetracker.event.ExpenseChangedEvent.SpendDelta;
+import com.expensetracker.repository.BudgetAlertRepository;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import com.expensetracker.repository.ExpenseRollupRepository.CategoryTotal;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.BudgetAlertSink.Alert;
+import com.expensetracker.util.SecurityUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Raises an alert when spending in a budget's category reaches one of the configured thresholds (80%
+ * and 100% by default) of the budget for its current month or year. Expense writes only publish an
+ * event; it is evaluated after commit on the budgetAlertExecutor, against budget definitions cached
+ * per user and spending counters held in memory per user, period and category. The counters are
+ * seeded from expense_rollups, moved by each event's deltas and reloaded after counter-ttl-minutes.
+ * Before an alert goes out the category's spending is re-read from the rollups, so a counter that has
+ * drifted never causes a false alert. When the executor's queue is full the change is dropped and
+ * counted instead; the next expense in the category re-evaluates it.
+ *
+ * <p>Each threshold alerts once per budget and period. budget_alerts is the record of that: an alert
+ * is stored there before it is handed to the sink, and is not delivered when this or another node has
+ * already stored it or a higher threshold, so restarts and additional nodes do not repeat alerts. The
+ * in-memory set of raised thresholds only saves those lookups.
+ */
+@Service
+public class BudgetAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetAlertService.class);
+
+    private static final long CLEANUP_MILLIS = 3_600_000L;
+    private static final int MAX_LISTED_ALERTS = 100;
+
+    private static final String INSERT_SQL = "INSERT IGNORE INTO budget_alerts (budget_id, user_id, category, period, " +
+            "period_start, threshold, amount, spent, triggered_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL =
+            "DELETE FROM budget_alerts WHERE budget_id = ? AND period_start = ? AND threshold = ?";
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository budgetAlertRepository;
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final UserRepository userRepository;
+    private final SecurityUtil securityUtil;
+    private final JdbcTemplate jdbcTemplate;
+    // Absent with app.budgets.alerts.sink=db, where the stored row is the alert
+    private final BudgetAlertSink sink;
+    private final Executor executor;
+    private final boolean enabled;
+    private final int[] thresholds;
+    private final long counterTtlMillis;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer evaluationTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter droppedCounter;
+
+    private final Map<Long, List<BudgetDefinition>> budgetCache = new ConcurrentHashMap<>();
+    private final Map<CounterKey, PeriodCounters> counters = new ConcurrentHashMap<>();
+    // Thresholds already alerted -> last day of their period, after which the entry is dropped
+    private final Map<AlertKey, LocalDate> alerted = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BudgetAlertService(BudgetRepository budgetRepository,
+                              BudgetAlertRepository budgetAlertRepository,
+                              ExpenseRollupRepository expenseRollupRepository,
+                              UserRepository userRepository,
+                              SecurityUtil securityUtil,
+                              JdbcTemplate jdbcTemplate,
+                              Optional<BudgetAlertSink> sink,
+                              @Qualifier("budgetAlertExecutor") Executor executor,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.budgets.alerts.enabled:true}") boolean enabled,
+                              @Value("${app.budgets.alerts.thresholds:80,100}") int[] thresholds,
+                              @Value("${app.budgets.alerts.counter-ttl-minutes:10}") long counterTtlMinutes) {
+        this.budgetRepository = budgetRepository;
+        this.budgetAlertRepository = budgetAlertRepository;
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.userRepository = userRepository;
+        this.securityUtil = securityUtil;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sink = sink.orElse(null);
+        this.executor = executor;
+        this.enabled = enabled;
+        this.thresholds = Arrays.stream(thresholds).filter(threshold -> threshold > 0).sorted().toArray();
+        this.counterTtlMillis = counterTtlMinutes * 60_000L;
+
+        Gauge.builder("budget.alerts.queue", queued, AtomicInteger::get)
+                .description("Expense changes waiting for budget threshold evaluation")
+                .register(meterRegistry);
+        this.evaluationTimer = Timer.builder("budget.alerts.evaluation")
+                .description("Time to evaluate budget thresholds for one expense change")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("budget.alerts.sent")
+                .description("Budget threshold alerts delivered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("budget.alerts.failed")
+                .description("Budget threshold alerts that could not be delivered")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("budget.alerts.dropped")
+                .description("Expense changes not evaluated because the alert executor was full")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!enabled || thresholds.length == 0) {
+            return;
+        }
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                try {
+                    evaluationTimer.record(() -> evaluate(event));
+                } catch (RuntimeException e) {
+                    logger.error("Budget threshold evaluation failed for user {}", event.userId(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            queued.decrementAndGet();
+            droppedCounter.increment();
+            logger.debug("Budget alert executor full, skipped evaluation for user {}", event.userId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        budgetCache.remove(event.userId());
+    }
+
+    /**
+     * Latest alerts raised for the current user, newest first.
+     */
+    public List<BudgetAlert> getRecentAlerts() {
+        User currentUser = securityUtil.getCurrentUser();
+        return budgetAlertRepository.findByUserIdOrderByTriggeredAtDesc(currentUser.getId(),
+                PageRequest.of(0, MAX_LISTED_ALERTS));
+    }
+
+    private void evaluate(ExpenseChangedEvent event) {
+        Long userId = event.userId();
+        LocalDate today = LocalDate.now();
+
+        // Categories whose spending grew in a budget window that is still running
+        Map<Budget.BudgetPeriod, Set<String>> raised = new EnumMap<>(Budget.BudgetPeriod.class);
+        for (SpendDelta delta : event.deltas()) {
+            String category = categoryKey(delta.category());
+            for (Budget.BudgetPeriod period : Budget.BudgetPeriod.values()) {
+                LocalDate start = BudgetUtilizationService.periodStart(period, delta.month());
+                PeriodCounters periodCounters = counters.get(new CounterKey(userId, period, start));
+                if (periodCounters != null) {
+                    periodCounters.add(category, delta.amount());
+                }
+                if (delta.amount().signum() > 0 && start.equals(BudgetUtilizationService.periodStart(period, today))) {
+                    raised.computeIfAbsent(period, key -> new HashSet<>()).add(category);
+                }
+            }
+        }
+        if (raised.isEmpty()) {
+            return;
+        }
+
+        for (BudgetDefinition budget : budgetCache.computeIfAbsent(userId, this::loadBudgets)) {
+            if (!raised.getOrDefault(budget.period(), Set.of()).contains(budget.categoryKey())
+                    || budget.amount().signum() <= 0) {
+                continue;
+            }
+            LocalDate start = BudgetUtilizationService.periodStart(budget.period(), today);
+            BigDecimal spent = counters(userId, budget.period(), start, false).get(budget.categoryKey());
+            int threshold = highestNewThreshold(budget, start, spent);
+            if (threshold == 0) {
+                continue;
+            }
+
+            // Confirm against the rollups before alerting; this also resynchronizes the counters
+            spent = counters(userId, budget.period(), start, true).get(budget.categoryKey());
+            threshold = highestNewThreshold(budget, start, spent);
+            if (threshold > 0) {
+                raise(userId, budget, start, spent, threshold, BudgetUtilizationService.periodEnd(budget.period(), today));
+            }
+        }
+    }
+
+    private int highestNewThreshold(BudgetDefinition budget, LocalDate periodStart, BigDecimal spent) {
+        BigDecimal percentUsed = percentUsed(spent, budget.amount());
+        int highest = 0;
+        for (int threshold : thresholds) {
+            if (percentUsed.compareTo(BigDecimal.valueOf(threshold)) >= 0
+                    && !alerted.containsKey(new AlertKey(budget.id(), periodStart, threshold))) {
+                highest = threshold;
+            }
+        }
+        return highest;
+    }
+
+    private void raise(Long userId, BudgetDefinition budget, LocalDate periodStart, BigDecimal spent,
+                       int threshold, LocalDate periodEnd) {
+        // Lower thresholds crossed in the same write are covered by this alert
+        boolean first = false;
+        for (int crossed : thresholds) {
+            if (crossed <= threshold
+                    && alerted.putIfAbsent(new AlertKey(budget.id(), periodStart, crossed), periodEnd) == null
+                    && crossed == threshold) {
+                first = true;
+            }
+        }
+        if (!first) {
+            // Another worker raised it concurrently
+            return;
+        }
+
+        Alert alert = new Alert(budget.id(), userId, budget.category(), budget.period(), periodStart, threshold,
+                budget.amount(), spent, percentUsed(spent, budget.amount()), LocalDateTime.now());
+        boolean stored = false;
+        try {
+            // Raised before a restart or by another node; covers lower thresholds as above
+            if (budgetAlertRepository.existsByBudgetIdAndPeriodStartAndThresholdGreaterThanEqual(
+                    budget.id(), periodStart, threshold)) {
+                return;
+            }
+            stored = jdbcTemplate.update(INSERT_SQL, alert.budgetId(), alert.userId(), alert.category(),
+                    alert.period().name(), Date.valueOf(alert.periodStart()), alert.threshold(), alert.amount(),
+                    alert.spent(), Timestamp.valueOf(alert.triggeredAt())) > 0;
+            if (!stored) {
+                // Another node stored it first
+                return;
+            }
+            if (sink != null) {
+                sink.deliver(alert);
+            }
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            // Forget it so the next expense in the category retries
+            alerted.remove(new AlertKey(budget.id(), periodStart, threshold));
+            if (stored) {
+                jdbcTemplate.update(DELETE_SQL, budget.id(), Date.valueOf(periodStart), threshold);
+            }
+            logger.error("Budget alert for budget {} could not be delivered", budget.id(), e);
+        }
+    }
+
+    private PeriodCounters counters(Long userId, Budget.BudgetPeriod period, LocalDate start, boolean reload) {
+        CounterKey key = new CounterKey(userId, period, start);
+        PeriodCounters periodCounters = counters.get(key);
+        if (reload || periodCounters == null || periodCounters.loadedAt + counterTtlMillis < System.currentTimeMillis()) {
+            periodCounters = loadCounters(userId, period, start);
+            counters.put(key, periodCounters);
+        }
+        return periodCounters;
+    }
+
+    private PeriodCounters loadCounters(Long userId, Budget.BudgetPeriod period, LocalDate start) {
+        LocalDate lastMonth = BudgetUtilizationService.periodEnd(period, start).withDayOfMonth(1);
+        PeriodCounters periodCounters = new PeriodCounters(System.currentTimeMillis());
+        for (CategoryTotal total : expenseRollupRepository.findCategoryTotals(userId, start, lastMonth)) {
+            periodCounters.add(categoryKey(total.getCategory()), total.getTotal());
+        }
+        return periodCounters;
+    }
+
+    private List<BudgetDefinition> loadBudgets(Long userId) {
+        List<BudgetDefinition> definitions = new ArrayList<>();
+        for (Budget budget : budgetRepository.findByUser(userRepository.getReferenceById(userId))) {
+            definitions.add(new BudgetDefinition(budget.getId(), budget.getCategory(), categoryKey(budget.getCategory()),
+                    budget.getPeriod(), budget.getAmount() != null ? budget.getAmount() : BigDecimal.ZERO));
+        }
+        return List.copyOf(definitions);
+    }
+
+    @Scheduled(fixedDelay = CLEANUP_MILLIS, initialDelay = CLEANUP_MILLIS)
+    public void cleanup() {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        alerted.values().removeIf(periodEnd -> periodEnd.isBefore(today));
+        counters.values().removeIf(periodCounters -> periodCounters.loadedAt + counterTtlMillis < now);
+    }
+
+    // Lower-cased, matching the case-insensitive collation the rollups are grouped by
+    private static String categoryKey(String category) {
+        return category != null ? category.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static BigDecimal percentUsed(BigDecimal spent, BigDecimal amount) {
+        return spent.multiply(BigDecimal.valueOf(100)).divide(amount, 2, RoundingMode.HALF_UP);
+    }
+
+    private record BudgetDefinition(Long id, String category, String categoryKey, Budget.BudgetPeriod period,
+                                    BigDecimal amount) {
+    }
+
+    private record CounterKey(Long userId, Budget.BudgetPeriod period, LocalDate periodStart) {
+    }
+
+    private record AlertKey(Long budgetId, LocalDate periodStart, int threshold) {
+    }
+
+    private static class PeriodCounters {
+        private final long loadedAt;
+        private final Map<String, BigDecimal> spent = new ConcurrentHashMap<>();
+
+        PeriodCounters(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        void add(String category, BigDecimal amount) {
+            spent.merge(category, amount, BigDecimal::add);
+        }
+
+        BigDecimal get(String category) {
+            return spent.getOrDefault(category, BigDecimal.ZERO);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Budget;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Delivers budget threshold alerts, after they are stored in budget_alerts. Select the implementation with
+ * app.budgets.alerts.sink; with db there is none and the stored row is the alert.
+ */
+public interface BudgetAlertSink {
+
+    void deliver(Alert alert);
+
+    record Alert(Long budgetId,
+                 Long userId,
+                 String category,
+                 Budget.BudgetPeriod period,
+                 LocalDate periodStart,
+                 int threshold,
+                 BigDecimal amount,
+                 BigDecimal spent,
+                 BigDecimal percentUsed,
+                 LocalDateTime triggeredAt) {
+    }
+}
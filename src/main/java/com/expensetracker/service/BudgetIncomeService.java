@@ -0,0 +1,156 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.BudgetChangedEvent;
+import com.expensetracker.repository.BudgetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Derives percentage budget amounts from the income the user has actually recorded: monthly budgets
+ * from this month's income, yearly budgets from this year's income so far. The effective income is
+ * cached per user for the current month, so budget reads never re-aggregate income. Only an income
+ * write, once committed, rewrites the user's percentage budgets, with one bulk UPDATE; budget reads
+ * never write. A new month needs no rewrite, since a period without income keeps its stored amount.
+ * Each recompute runs in its own short transaction that locks the user's row before summing and caches
+ * the result before releasing it, so concurrent recomputes for a user run one after another and the
+ * last one's sums are the ones cached. A recompute that fails is retried by a sweep.
+ */
+@Service
+public class BudgetIncomeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetIncomeService.class);
+
+    // One range read on idx_income_user_date covers both the month and the year to date
+    private static final String INCOME_SQL = "SELECT COALESCE(SUM(CASE WHEN created_at >= ? THEN amount END), 0) AS monthly, " +
+            "COALESCE(SUM(amount), 0) AS yearly FROM income WHERE user_id = ? AND created_at >= ? AND created_at < ?";
+    private static final String LOCK_USER_SQL = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+
+    private static final long RETRY_MILLIS = 60_000L;
+
+    private final BudgetRepository budgetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate recomputeTransaction;
+
+    private final Map<Long, EffectiveIncome> cache = new ConcurrentHashMap<>();
+    // Users whose percentage budgets could not be re-derived after an income write
+    private final Set<Long> failedRecomputes = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BudgetIncomeService(BudgetRepository budgetRepository,
+                               JdbcTemplate jdbcTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        // Each statement reads the latest committed income, not a snapshot taken before the lock was granted
+        this.recomputeTransaction = new TransactionTemplate(transactionManager);
+        this.recomputeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recomputeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * The user's income for the current month and year. Read-only: a cache miss only sums the income.
+     */
+    public EffectiveIncome getEffectiveIncome(User user) {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        EffectiveIncome cached = cache.get(user.getId());
+        if (cached != null && cached.month().equals(month)) {
+            return cached;
+        }
+        EffectiveIncome summed = sum(user.getId(), month);
+        // A recompute that cached in the meantime holds sums at least as recent as these
+        return cache.merge(user.getId(), summed,
+                (current, fresh) -> fresh.month().isAfter(current.month()) ? fresh : current);
+    }
+
+    /**
+     * Recomputes the user's effective income and percentage budget amounts once the transaction that
+     * wrote the income has committed, so the sum includes it.
+     */
+    public void incomeChanged(User user) {
+        Long userId = user.getId();
+        cache.remove(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recalculate(userId, LocalDate.now().withDayOfMonth(1));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    recalculate(userId, LocalDate.now().withDayOfMonth(1));
+                } catch (RuntimeException e) {
+                    // The income is stored; the sweep re-derives the budgets
+                    cache.remove(userId);
+                    failedRecomputes.add(userId);
+                    logger.error("Could not re-derive percentage budgets for user {}, will retry", userId, e);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelay = RETRY_MILLIS, initialDelay = RETRY_MILLIS)
+    public void retryFailedRecomputes() {
+        for (Long userId : failedRecomputes) {
+            try {
+                recalculate(userId, LocalDate.now().withDayOfMonth(1));
+                failedRecomputes.remove(userId);
+            } catch (RuntimeException e) {
+                logger.warn("Retry of percentage budget re-derive failed for user {}", userId, e);
+            }
+        }
+    }
+
+    private EffectiveIncome recalculate(Long userId, LocalDate month) {
+        return recomputeTransaction.execute(status -> {
+            jdbcTemplate.queryForObject(LOCK_USER_SQL, Long.class, userId);
+            EffectiveIncome summed = sum(userId, month);
+
+            int updated = budgetRepository.updatePercentageAmounts(userId, summed.monthly(), summed.yearly());
+            if (updated > 0) {
+                logger.debug("Re-derived {} percentage budgets for user {} from income {} / {}",
+                        updated, userId, summed.monthly(), summed.yearly());
+                eventPublisher.publishEvent(new BudgetChangedEvent(userId));
+            }
+            // Still under the user lock, so a later recompute always caches after this one
+            cache.put(userId, summed);
+            return summed;
+        });
+    }
+
+    private EffectiveIncome sum(Long userId, LocalDate month) {
+        LocalDate year = month.withDayOfYear(1);
+        return jdbcTemplate.queryForObject(INCOME_SQL, (rs, rowNum) ->
+                        new EffectiveIncome(month, rs.getBigDecimal("monthly"), rs.getBigDecimal("yearly")),
+                Timestamp.valueOf(month.atStartOfDay()), userId, Timestamp.valueOf(year.atStartOfDay()),
+                Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+    }
+
+    public record EffectiveIncome(LocalDate month, BigDecimal monthly, BigDecimal yearly) {
+
+        public BigDecimal forPeriod(Budget.BudgetPeriod period) {
+            return period == Budget.BudgetPeriod.yearly ? yearly : monthly;
+        }
+    }
+}
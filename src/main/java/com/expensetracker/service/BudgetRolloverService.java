@@ -0,0 +1,473 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetUtilization;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.BudgetPeriodSnapshot;
+import com.expensetracker.entity.User;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.BudgetPeriodSnapshotRepository;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.util.SecurityUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes budget periods: once a month has ended, the final utilization of every monthly budget is
+ * written to budget_periods, and after December that of every yearly budget as well. Users with budgets
+ * are split into partitions that are processed in parallel on a bounded fork/join pool, each partition
+ * in its own transaction. Spending comes from expense_rollups and percentage budget amounts from the
+ * income of the closed period, each with one grouped query per partition; the snapshots are written in
+ * one JDBC batch per partition.
+ *
+ * Snapshots are unique per budget and period start and inserted with INSERT IGNORE, so a run that is
+ * repeated or resumed after a crash only adds the budgets that are still missing. A snapshot records the
+ * budget as it is at the time of the run, so months before the latest closed one cannot be back-filled.
+ *
+ * A run holds a MySQL named lock for its duration, so only one node rolls over at a time. The scheduled
+ * run fires on every node; it is skipped where the lock is taken or the month already has snapshots.
+ */
+@Service
+public class BudgetRolloverService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetRolloverService.class);
+
+    private static final int PARTITION_SIZE = 100;
+    private static final int MAX_MONTHS = 120;
+
+    private static final String LATEST_CLOSED_SQL = "SELECT MAX(period_end) FROM budget_periods";
+
+    private static final String PERIOD_CLOSED_SQL = "SELECT COUNT(*) FROM budget_periods WHERE period_end = ?";
+
+    private static final String LOCK_NAME = "budget_rollover";
+    private static final String GET_LOCK_SQL = "SELECT GET_LOCK(?, 0)";
+    private static final String RELEASE_LOCK_SQL = "SELECT RELEASE_LOCK(?)";
+
+    private static final String USERS_SQL = "SELECT DISTINCT user_id FROM budgets ORDER BY user_id";
+
+    // Budgets created after the period ended have no history for it
+    private static final String BUDGETS_SQL = "SELECT id, user_id, category, budget_type, amount, percentage, period " +
+            "FROM budgets WHERE user_id IN (:userIds) AND period IN (:periods) " +
+            "AND (created_at IS NULL OR created_at < :closedAt)";
+
+    private static final String SPENT_SQL = "SELECT user_id, category, SUM(total) AS spent FROM expense_rollups " +
+            "WHERE user_id IN (:userIds) AND period_month BETWEEN :fromMonth AND :toMonth GROUP BY user_id, category";
+
+    private static final String INCOME_SQL = "SELECT user_id, SUM(amount) AS income FROM income " +
+            "WHERE user_id IN (:userIds) AND created_at >= :from AND created_at < :to GROUP BY user_id";
+
+    private static final String SNAPSHOTTED_SQL = "SELECT budget_id FROM budget_periods " +
+            "WHERE user_id IN (:userIds) AND period_start IN (:periodStarts)";
+
+    private static final String INSERT_SNAPSHOT_SQL = "INSERT IGNORE INTO budget_periods (budget_id, user_id, category, " +
+            "budget_type, period, period_start, period_end, amount, spent, remaining, percent_used, over_budget, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum Status {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        // Another node was rolling over, or the scheduled run found the month already closed
+        SKIPPED,
+        FAILED
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ExpenseRollupService expenseRollupService;
+    private final BudgetPeriodSnapshotRepository budgetPeriodSnapshotRepository;
+    private final UserRepository userRepository;
+    private final SecurityUtil securityUtil;
+    private final TransactionTemplate partitionTransaction;
+    private final boolean enabled;
+    private final int parallelism;
+
+    private volatile Run currentRun;
+
+    @Autowired
+    public BudgetRolloverService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 ExpenseRollupService expenseRollupService,
+                                 BudgetPeriodSnapshotRepository budgetPeriodSnapshotRepository,
+                                 UserRepository userRepository,
+                                 SecurityUtil securityUtil,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.budgets.rollover.enabled:true}") boolean enabled,
+                                 @Value("${app.budgets.rollover.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expenseRollupService = expenseRollupService;
+        this.budgetPeriodSnapshotRepository = budgetPeriodSnapshotRepository;
+        this.userRepository = userRepository;
+        this.securityUtil = securityUtil;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partitionTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Closes the month that just ended; by default shortly after midnight on the 1st.
+     */
+    @Scheduled(cron = "${app.budgets.rollover.cron:0 15 0 1 * *}")
+    public void rolloverPreviousMonth() {
+        if (enabled) {
+            start(YearMonth.now().minusMonths(1), true);
+        }
+    }
+
+    /**
+     * Starts a rollover of the given month in the background; a December also closes the yearly budgets
+     * of its year. Only months that have ended, and not before the latest closed month, can be closed.
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean start(YearMonth period) {
+        return start(period, false);
+    }
+
+    private synchronized boolean start(YearMonth period, boolean scheduled) {
+        if (!period.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only months that have ended can be rolled over");
+        }
+        LocalDate latestClosed = jdbcTemplate.getJdbcTemplate().queryForObject(LATEST_CLOSED_SQL, LocalDate.class);
+        if (latestClosed != null && period.isBefore(YearMonth.from(latestClosed))) {
+            throw new IllegalArgumentException("Budgets have already been rolled over for " + YearMonth.from(latestClosed) +
+                    "; earlier months cannot be back-filled");
+        }
+        if (currentRun != null && currentRun.status == Status.RUNNING) {
+            return false;
+        }
+        Run run = new Run(period);
+        currentRun = run;
+
+        Thread runner = new Thread(() -> execute(run, scheduled), "budget-rollover");
+        runner.setDaemon(true);
+        runner.start();
+        return true;
+    }
+
+    public RolloverReport getReport() {
+        Run run = currentRun;
+        if (run == null) {
+            return new RolloverReport(Status.IDLE, null, null, null, 0, 0, 0, 0, 0);
+        }
+        return new RolloverReport(run.status, run.period.toString(), run.startedAt, run.finishedAt,
+                run.usersTotal, run.budgetsSnapshotted.get(), run.budgetsAlreadySnapshotted.get(),
+                run.rollupsRebuilt.get(), run.failedPartitions.get());
+    }
+
+    /**
+     * Closed periods of one budget of the current user, newest first.
+     */
+    public List<BudgetPeriodSnapshot> getHistory(Long budgetId) {
+        User currentUser = securityUtil.getCurrentUser();
+        return budgetPeriodSnapshotRepository.findByBudgetIdAndUserIdOrderByPeriodStartDesc(budgetId, currentUser.getId());
+    }
+
+    /**
+     * Closed periods of all budgets of the current user that started within the given months (the last
+     * 12 by default), newest first.
+     */
+    public List<BudgetPeriodSnapshot> getHistory(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now().minusMonths(1);
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        if (start.isAfter(end)) {
+            throw new ValidationException("from must not be after to");
+        }
+        if (ChronoUnit.MONTHS.between(start, end) >= MAX_MONTHS) {
+            throw new ValidationException("Range must not exceed " + MAX_MONTHS + " months");
+        }
+        User currentUser = securityUtil.getCurrentUser();
+        return budgetPeriodSnapshotRepository.findByUserIdAndPeriodStartBetweenOrderByPeriodStartDesc(
+                currentUser.getId(), start.atDay(1), end.atDay(1));
+    }
+
+    private void execute(Run run, boolean scheduled) {
+        try {
+            // The named lock belongs to the connection, so it is held on one connection for the whole run
+            Boolean ran = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection -> {
+                if (!namedLock(connection, GET_LOCK_SQL)) {
+                    return false;
+                }
+                try {
+                    if (scheduled && isClosed(run.period)) {
+                        return false;
+                    }
+                    rolloverUsers(run);
+                    return true;
+                } finally {
+                    namedLock(connection, RELEASE_LOCK_SQL);
+                }
+            });
+            if (!Boolean.TRUE.equals(ran)) {
+                run.status = Status.SKIPPED;
+                logger.info("Budget rollover for {} skipped: running on another node or already closed", run.period);
+            }
+        } catch (RuntimeException e) {
+            run.status = Status.FAILED;
+            logger.error("Budget rollover for {} failed", run.period, e);
+        } finally {
+            run.finishedAt = Instant.now();
+        }
+    }
+
+    private boolean isClosed(YearMonth period) {
+        Long snapshots = jdbcTemplate.getJdbcTemplate().queryForObject(PERIOD_CLOSED_SQL, Long.class,
+                Date.valueOf(period.atEndOfMonth()));
+        return snapshots != null && snapshots > 0;
+    }
+
+    private static boolean namedLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void rolloverUsers(Run run) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Long> userIds = jdbcTemplate.getJdbcTemplate().queryForList(USERS_SQL, Long.class);
+            run.usersTotal = userIds.size();
+            pool.invoke(new RolloverBatch(run, userIds));
+            run.status = Status.COMPLETED;
+            logger.info("Budget rollover for {} finished: {} budgets snapshotted, {} already snapshotted, " +
+                            "{} rollups rebuilt, {} failed partitions", run.period, run.budgetsSnapshotted.get(),
+                    run.budgetsAlreadySnapshotted.get(), run.rollupsRebuilt.get(), run.failedPartitions.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void rolloverPartition(Run run, List<Long> userIds) {
+        try {
+            // Rebuilt outside the partition transaction, so each rebuild keeps its own REPEATABLE READ locking
+            ensureRollups(run, userIds);
+            partitionTransaction.executeWithoutResult(status -> rollover(run, userIds));
+        } catch (RuntimeException e) {
+            // Nothing of the partition was written; the next run picks it up again
+            run.failedPartitions.incrementAndGet();
+            logger.error("Budget rollover for {} failed for users {}..{}", run.period,
+                    userIds.get(0), userIds.get(userIds.size() - 1), e);
+        }
+    }
+
+    /**
+     * Rebuilds the rollups of the partition's users that no longer match their expenses, so a period is not
+     * closed on drifted totals between two runs of the rollup verification job.
+     */
+    private void ensureRollups(Run run, List<Long> userIds) {
+        for (Long userId : expenseRollupService.findStale(userIds)) {
+            expenseRollupService.rebuildForUser(userRepository.getReferenceById(userId));
+            run.rollupsRebuilt.incrementAndGet();
+        }
+    }
+
+    private void rollover(Run run, List<Long> userIds) {
+        YearMonth period = run.period;
+        boolean closesYear = period.getMonth() == Month.DECEMBER;
+
+        Map<Budget.BudgetPeriod, LocalDate> starts = new EnumMap<>(Budget.BudgetPeriod.class);
+        starts.put(Budget.BudgetPeriod.monthly, period.atDay(1));
+        if (closesYear) {
+            starts.put(Budget.BudgetPeriod.yearly, period.atDay(1).withDayOfYear(1));
+        }
+        LocalDate closedAt = period.plusMonths(1).atDay(1);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("periods", starts.keySet().stream().map(Enum::name).toList())
+                .addValue("closedAt", Timestamp.valueOf(closedAt.atStartOfDay()))
+                .addValue("periodStarts", starts.values());
+        Set<Long> snapshotted = new HashSet<>(jdbcTemplate.queryForList(SNAPSHOTTED_SQL, params, Long.class));
+        List<BudgetRow> budgets = new ArrayList<>();
+        jdbcTemplate.query(BUDGETS_SQL, params, rs -> {
+            if (snapshotted.contains(rs.getLong("id"))) {
+                run.budgetsAlreadySnapshotted.incrementAndGet();
+                return;
+            }
+            Budget budget = new Budget();
+            budget.setId(rs.getLong("id"));
+            budget.setCategory(rs.getString("category"));
+            budget.setBudgetType(Budget.BudgetType.valueOf(rs.getString("budget_type")));
+            budget.setAmount(rs.getBigDecimal("amount"));
+            budget.setPercentage(rs.getBigDecimal("percentage"));
+            budget.setPeriod(Budget.BudgetPeriod.valueOf(rs.getString("period")));
+            budgets.add(new BudgetRow(budget, rs.getLong("user_id")));
+        });
+        if (budgets.isEmpty()) {
+            return;
+        }
+
+        Map<Budget.BudgetPeriod, Map<Long, Map<String, BigDecimal>>> spent = new EnumMap<>(Budget.BudgetPeriod.class);
+        Map<Budget.BudgetPeriod, Map<Long, BigDecimal>> income = new EnumMap<>(Budget.BudgetPeriod.class);
+        starts.forEach((budgetPeriod, start) -> {
+            spent.put(budgetPeriod, spentByUser(userIds, start, BudgetUtilizationService.periodEnd(budgetPeriod, start)));
+            income.put(budgetPeriod, incomeByUser(userIds, start, closedAt));
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(budgets.size());
+        for (BudgetRow row : budgets) {
+            Budget budget = row.budget();
+            Long userId = row.userId();
+            Budget.BudgetPeriod budgetPeriod = budget.getPeriod();
+            BigDecimal periodIncome = income.get(budgetPeriod).getOrDefault(userId, BigDecimal.ZERO);
+            if (budget.getBudgetType() == Budget.BudgetType.percentage && budget.getPercentage() != null
+                    && periodIncome.signum() > 0) {
+                // The amount as it stood at period end, not as re-derived from the new period's income. Without
+                // income the stored amount stands, as it did for the live budget (see updatePercentageAmounts)
+                budget.calculateAmountFromPercentage(periodIncome);
+            }
+            BigDecimal budgetSpent = spent.get(budgetPeriod)
+                    .getOrDefault(userId, Map.of())
+                    .getOrDefault(budget.getCategory(), BigDecimal.ZERO);
+            LocalDate start = starts.get(budgetPeriod);
+            BudgetUtilization utilization = BudgetUtilizationService.utilization(budget, start,
+                    BudgetUtilizationService.periodEnd(budgetPeriod, start), budgetSpent);
+            rows.add(new Object[]{
+                    utilization.getBudgetId(),
+                    userId,
+                    utilization.getCategory(),
+                    utilization.getBudgetType().name(),
+                    utilization.getPeriod().name(),
+                    Date.valueOf(utilization.getPeriodStart()),
+                    Date.valueOf(utilization.getPeriodEnd()),
+                    utilization.getAmount(),
+                    utilization.getSpent(),
+                    utilization.getRemaining(),
+                    utilization.getPercentUsed(),
+                    utilization.isOverBudget(),
+                    now
+            });
+        }
+
+        // IGNORE only matters for a concurrent run of the same period; the rows above are not snapshotted yet
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SNAPSHOT_SQL, rows);
+        run.budgetsSnapshotted.addAndGet(rows.size());
+    }
+
+    /**
+     * Spending per user and category over the months of a period; categories are matched case-insensitively
+     * like budget utilization does.
+     */
+    private Map<Long, Map<String, BigDecimal>> spentByUser(List<Long> userIds, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("fromMonth", from.withDayOfMonth(1))
+                .addValue("toMonth", to.withDayOfMonth(1));
+        Map<Long, Map<String, BigDecimal>> spent = new HashMap<>();
+        jdbcTemplate.query(SPENT_SQL, params, rs -> {
+            spent.computeIfAbsent(rs.getLong("user_id"), id -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                    .merge(rs.getString("category"), rs.getBigDecimal("spent"), BigDecimal::add);
+        });
+        return spent;
+    }
+
+    private Map<Long, BigDecimal> incomeByUser(List<Long> userIds, LocalDate from, LocalDate to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("from", Timestamp.valueOf(from.atStartOfDay()))
+                .addValue("to", Timestamp.valueOf(to.atStartOfDay()));
+        Map<Long, BigDecimal> income = new HashMap<>();
+        jdbcTemplate.query(INCOME_SQL, params, rs -> {
+            income.put(rs.getLong("user_id"), rs.getBigDecimal("income"));
+        });
+        return income;
+    }
+
+    private class RolloverBatch extends RecursiveAction {
+        private final Run run;
+        private final List<Long> userIds;
+
+        RolloverBatch(Run run, List<Long> userIds) {
+            this.run = run;
+            this.userIds = userIds;
+        }
+
+        @Override
+        protected void compute() {
+            if (userIds.size() <= PARTITION_SIZE) {
+                if (!userIds.isEmpty()) {
+                    rolloverPartition(run, userIds);
+                }
+                return;
+            }
+            int middle = userIds.size() / 2;
+            invokeAll(new RolloverBatch(run, userIds.subList(0, middle)),
+                    new RolloverBatch(run, userIds.subList(middle, userIds.size())));
+        }
+    }
+
+    private record BudgetRow(Budget budget, Long userId) {
+    }
+
+    private static class Run {
+        private final YearMonth period;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile int usersTotal;
+        private final AtomicLong budgetsSnapshotted = new AtomicLong();
+        private final AtomicLong budgetsAlreadySnapshotted = new AtomicLong();
+        private final AtomicLong rollupsRebuilt = new AtomicLong();
+        private final AtomicLong failedPartitions = new AtomicLong();
+
+        Run(YearMonth period) {
+            this.period = period;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RolloverReport {
+        private Status status;
+        private String period;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private int usersTotal;
+        private long budgetsSnapshotted;
+        private long budgetsAlreadySnapshotted;
+        private long rollupsRebuilt;
+        private long failedPartitions;
+    }
+}
@@ -3,37 +3,46 @@ package com.expensetracker.service;
 import com.expensetracker.dto.BudgetRequest;
 import com.expensetracker.entity.Budget;
 import com.expensetracker.entity.User;
+import com.expensetracker.event.BudgetChangedEvent;
 import com.expensetracker.exception.DuplicateResourceException;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.exception.ValidationException;
 import com.expensetracker.repository.BudgetRepository;
 import com.expensetracker.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
+    private final BudgetIncomeService budgetIncomeService;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BudgetService(BudgetRepository budgetRepository, SecurityUtil securityUtil) {
+    public BudgetService(BudgetRepository budgetRepository, BudgetIncomeService budgetIncomeService,
+                         JsonStreamService jsonStreamService, SecurityUtil securityUtil,
+                         ApplicationEventPublisher eventPublisher) {
         this.budgetRepository = budgetRepository;
+        this.budgetIncomeService = budgetIncomeService;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<Budget> getAllBudgets() {
-        User currentUser = securityUtil.getCurrentUser();
-        return budgetRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllBudgets() {
+        return jsonStreamService.streamArray(budgetRepository::streamByUser);
     }
 
     public Page<Budget> getAllBudgets(int page, int size, String sortBy, String sortDir) {
@@ -84,18 +93,13 @@ public class BudgetService {
                 throw new ValidationException("Percentage must be between 0 and 100");
             }
             budget.setPercentage(budgetRequest.getPercentage());
-            
-            // Calculate amount from percentage and monthly income
-            if (budgetRequest.getMonthlyIncome() != null && budgetRequest.getMonthlyIncome().compareTo(BigDecimal.ZERO) > 0) {
-                budget.calculateAmountFromPercentage(budgetRequest.getMonthlyIncome());
-            } else {
-                // If monthlyIncome not provided, set amount to 0 (can be updated later)
-                budget.setAmount(BigDecimal.ZERO);
-            }
+            applyIncome(budget, currentUser, budgetRequest.getMonthlyIncome());
         }
 
         budget.setUser(currentUser);
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        eventPublisher.publishEvent(new BudgetChangedEvent(currentUser.getId()));
+        return savedBudget;
     }
 
     public Budget updateBudget(Long id, BudgetRequest budgetRequest) {
@@ -153,15 +157,28 @@ public class BudgetService {
                     throw new ValidationException("Percentage must be between 0 and 100");
                 }
                 budget.setPercentage(budgetRequest.getPercentage());
-                // Recalculate amount if monthlyIncome provided
-                if (budgetRequest.getMonthlyIncome() != null && 
-                    budgetRequest.getMonthlyIncome().compareTo(BigDecimal.ZERO) > 0) {
-                    budget.calculateAmountFromPercentage(budgetRequest.getMonthlyIncome());
-                }
             }
+            // The period or percentage may have changed; either way the amount follows the income
+            applyIncome(budget, currentUser, budgetRequest.getMonthlyIncome());
         }
 
-        return budgetRepository.save(budget);
+        Budget savedBudget = budgetRepository.save(budget);
+        eventPublisher.publishEvent(new BudgetChangedEvent(currentUser.getId()));
+        return savedBudget;
+    }
+
+    /**
+     * Sets a percentage budget's amount from the user's recorded income for its period. A monthlyIncome
+     * sent by the client is only used while no income has been recorded for the period; the next income
+     * write replaces it with the derived amount.
+     */
+    private void applyIncome(Budget budget, User user, BigDecimal requestedIncome) {
+        BigDecimal income = budgetIncomeService.getEffectiveIncome(user).forPeriod(budget.getPeriod());
+        if (income.signum() == 0 && requestedIncome != null && requestedIncome.signum() > 0) {
+            income = requestedIncome;
+        }
+        budget.setAmount(BigDecimal.ZERO);
+        budget.calculateAmountFromPercentage(income);
     }
 
     public void deleteBudget(Long id) {
@@ -170,6 +187,7 @@ public class BudgetService {
             throw new ResourceNotFoundException("Budget", id);
         }
         budgetRepository.deleteById(id);
+        eventPublisher.publishEvent(new BudgetChangedEvent(currentUser.getId()));
     }
 }
 
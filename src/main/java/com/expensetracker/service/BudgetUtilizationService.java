@@ -0,0 +1,104 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetUtilization;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.User;
+import com.expensetracker.exception.ResourceNotFoundException;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import com.expensetracker.repository.ExpenseRollupRepository.CategoryTotal;
+import com.expensetracker.util.SecurityUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Spend against each budget for its current window (calendar month or year). Spending comes from the
+ * per-category monthly counters in expense_rollups, which expense writes keep up to date, so a
+ * utilization read costs one indexed range per period type and never scans expenses.
+ */
+@Service
+public class BudgetUtilizationService {
+
+    private final BudgetRepository budgetRepository;
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final SecurityUtil securityUtil;
+
+    @Autowired
+    public BudgetUtilizationService(BudgetRepository budgetRepository,
+                                    ExpenseRollupRepository expenseRollupRepository,
+                                    SecurityUtil securityUtil) {
+        this.budgetRepository = budgetRepository;
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.securityUtil = securityUtil;
+    }
+
+    public static LocalDate periodStart(Budget.BudgetPeriod period, LocalDate date) {
+        return period == Budget.BudgetPeriod.yearly ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+    }
+
+    public static LocalDate periodEnd(Budget.BudgetPeriod period, LocalDate date) {
+        return period == Budget.BudgetPeriod.yearly
+                ? date.with(TemporalAdjusters.lastDayOfYear())
+                : date.with(TemporalAdjusters.lastDayOfMonth());
+    }
+
+    public List<BudgetUtilization> getUtilization() {
+        User currentUser = securityUtil.getCurrentUser();
+        return utilizationFor(currentUser, budgetRepository.findByUser(currentUser), LocalDate.now());
+    }
+
+    public BudgetUtilization getUtilization(Long budgetId) {
+        User currentUser = securityUtil.getCurrentUser();
+        Budget budget = budgetRepository.findByIdAndUser(budgetId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget", budgetId));
+        return utilizationFor(currentUser, List.of(budget), LocalDate.now()).get(0);
+    }
+
+    /**
+     * Utilization of the given budgets for the windows containing the given date.
+     */
+    public List<BudgetUtilization> utilizationFor(User user, List<Budget> budgets, LocalDate date) {
+        // One grouped read per period type the budgets actually use
+        Map<Budget.BudgetPeriod, Map<String, BigDecimal>> spentByPeriod = new EnumMap<>(Budget.BudgetPeriod.class);
+        for (Budget budget : budgets) {
+            spentByPeriod.computeIfAbsent(budget.getPeriod(), period -> spentByCategory(user, period, date));
+        }
+
+        List<BudgetUtilization> result = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            BigDecimal spent = spentByPeriod.get(budget.getPeriod()).getOrDefault(budget.getCategory(), BigDecimal.ZERO);
+            result.add(utilization(budget, periodStart(budget.getPeriod(), date), periodEnd(budget.getPeriod(), date), spent));
+        }
+        return result;
+    }
+
+    public static BudgetUtilization utilization(Budget budget, LocalDate periodStart, LocalDate periodEnd, BigDecimal spent) {
+        BigDecimal amount = budget.getAmount() != null ? budget.getAmount() : BigDecimal.ZERO;
+        BigDecimal percentUsed = amount.signum() > 0
+                ? spent.multiply(BigDecimal.valueOf(100)).divide(amount, 2, RoundingMode.HALF_UP)
+                : null;
+        return new BudgetUtilization(budget.getId(), budget.getCategory(), budget.getBudgetType(), budget.getPeriod(),
+                periodStart, periodEnd, amount, spent, amount.subtract(spent), percentUsed, spent.compareTo(amount) > 0);
+    }
+
+    private Map<String, BigDecimal> spentByCategory(User user, Budget.BudgetPeriod period, LocalDate date) {
+        LocalDate start = periodStart(period, date);
+        LocalDate lastMonth = periodEnd(period, date).withDayOfMonth(1);
+        // Case-insensitive like the column's collation, which already groups "Food" and "food" together
+        Map<String, BigDecimal> spent = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (CategoryTotal total : expenseRollupRepository.findCategoryTotals(user.getId(), start, lastMonth)) {
+            spent.merge(total.getCategory(), total.getTotal(), BigDecimal::add);
+        }
+        return spent;
+    }
+}
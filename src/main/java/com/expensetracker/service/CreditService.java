@@ -6,25 +6,26 @@ import com.expensetracker.repository.CreditRepository;
 import com.expensetracker.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CreditService {
 
     private final CreditRepository creditRepository;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public CreditService(CreditRepository creditRepository, SecurityUtil securityUtil) {
+    public CreditService(CreditRepository creditRepository, JsonStreamService jsonStreamService, SecurityUtil securityUtil) {
         this.creditRepository = creditRepository;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<Credit> getAllCredits() {
-        User currentUser = securityUtil.getCurrentUser();
-        return creditRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllCredits() {
+        return jsonStreamService.streamArray(creditRepository::streamByUser);
     }
 
     public Optional<Credit> getCreditById(Long id) {
@@ -0,0 +1,312 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategoryExpenseTotal;
+import com.expensetracker.dto.ExpenseTimeSeries;
+import com.expensetracker.dto.MonthlyExpenseTotal;
+import com.expensetracker.dto.YearOverYearReport;
+import com.expensetracker.entity.User;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import com.expensetracker.repository.ExpenseRollupRepository.CategoryTotal;
+import com.expensetracker.repository.ExpenseRollupRepository.MonthCategoryTotal;
+import com.expensetracker.repository.ExpenseRollupRepository.MonthTotal;
+import com.expensetracker.util.SecurityUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spending analytics. Month-level reports read expense_rollups, so each costs a handful of rows per
+ * month instead of a scan over the user's expenses; finer time series are grouped in the database.
+ */
+@Service
+public class ExpenseAnalyticsService {
+
+    private static final int MAX_MONTHS = 120;
+    private static final int MAX_BUCKETS = 1000;
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH
+    }
+
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final SecurityUtil securityUtil;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ExpenseAnalyticsService(ExpenseRollupRepository expenseRollupRepository,
+                                   ExpenseRollupService expenseRollupService,
+                                   SecurityUtil securityUtil,
+                                   JdbcTemplate jdbcTemplate) {
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.expenseRollupService = expenseRollupService;
+        this.securityUtil = securityUtil;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Total spending per month, oldest first. Months without expenses are included with a zero total.
+     */
+    public List<MonthlyExpenseTotal> getMonthlyTotals(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        validateRange(start, end);
+
+        User currentUser = securityUtil.getCurrentUser();
+        Map<YearMonth, MonthTotal> totals = monthTotals(currentUser, start, end);
+
+        List<MonthlyExpenseTotal> result = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            MonthTotal total = totals.get(month);
+            result.add(total != null
+                    ? new MonthlyExpenseTotal(month, total.getTotal(), total.getExpenseCount())
+                    : new MonthlyExpenseTotal(month, BigDecimal.ZERO, 0));
+        }
+        return result;
+    }
+
+    /**
+     * Spending per category over the given months (the current month by default), largest first.
+     */
+    public List<CategoryExpenseTotal> getCategoryBreakdown(YearMonth from, YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end;
+        validateRange(start, end);
+
+        User currentUser = securityUtil.getCurrentUser();
+        List<CategoryTotal> totals = expenseRollupRepository.findCategoryTotals(currentUser.getId(),
+                start.atDay(1), end.atDay(1));
+        BigDecimal grandTotal = totals.stream()
+                .map(CategoryTotal::getTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        List<CategoryExpenseTotal> result = new ArrayList<>(totals.size());
+        for (CategoryTotal total : totals) {
+            String category = total.getCategory().isEmpty() ? null : total.getCategory();
+            result.add(new CategoryExpenseTotal(category, total.getTotal(), total.getExpenseCount(),
+                    percentOf(total.getTotal(), grandTotal)));
+        }
+        return result;
+    }
+
+    /**
+     * Compares each month of the given year (the current year by default) with the same month a year earlier.
+     */
+    public YearOverYearReport getYearOverYear(Integer year) {
+        int reportYear = year != null ? year : YearMonth.now().getYear();
+        YearMonth start = YearMonth.of(reportYear - 1, 1);
+        YearMonth end = YearMonth.of(reportYear, 12);
+
+        User currentUser = securityUtil.getCurrentUser();
+        Map<YearMonth, MonthTotal> totals = monthTotals(currentUser, start, end);
+
+        YearOverYearReport report = new YearOverYearReport();
+        report.setYear(reportYear);
+        for (int month = 1; month <= 12; month++) {
+            BigDecimal current = totalOf(totals.get(YearMonth.of(reportYear, month)));
+            BigDecimal previous = totalOf(totals.get(YearMonth.of(reportYear - 1, month)));
+            BigDecimal change = current.subtract(previous);
+            report.getMonths().add(new YearOverYearReport.MonthComparison(month, current, previous, change,
+                    changePercent(change, previous)));
+            report.setTotal(report.getTotal().add(current));
+            report.setPreviousTotal(report.getPreviousTotal().add(previous));
+        }
+        report.setChange(report.getTotal().subtract(report.getPreviousTotal()));
+        report.setChangePercent(changePercent(report.getChange(), report.getPreviousTotal()));
+        return report;
+    }
+
+    /**
+     * Spending per day, week or month between two dates (inclusive), with empty buckets reported as zero.
+     * Days and weeks are grouped by the database over idx_expenses_user_date; whole months come from
+     * expense_rollups, and only partial months at either end of the range touch expenses.
+     */
+    public ExpenseTimeSeries getTimeSeries(LocalDate startDate, LocalDate endDate, Granularity granularity,
+                                           boolean byCategory) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate : defaultStart(end, granularity);
+        if (start.isAfter(end)) {
+            throw new ValidationException("startDate must not be after endDate");
+        }
+
+        List<LocalDate> buckets = new ArrayList<>();
+        for (LocalDate bucket = bucketOf(start, granularity); !bucket.isAfter(end); bucket = nextBucket(bucket, granularity)) {
+            if (buckets.size() == MAX_BUCKETS) {
+                throw new ValidationException("Range has more than " + MAX_BUCKETS + " buckets; use a coarser granularity");
+            }
+            buckets.add(bucket);
+        }
+        SeriesAccumulator accumulator = new SeriesAccumulator(buckets);
+
+        User currentUser = securityUtil.getCurrentUser();
+        if (granularity == Granularity.MONTH) {
+            LocalDate firstFullMonth = start.getDayOfMonth() == 1 ? start : start.withDayOfMonth(1).plusMonths(1);
+            LocalDate lastFullMonth = end.equals(end.with(TemporalAdjusters.lastDayOfMonth()))
+                    ? end.withDayOfMonth(1)
+                    : end.withDayOfMonth(1).minusMonths(1);
+            if (firstFullMonth.isAfter(lastFullMonth)) {
+                addGrouped(accumulator, currentUser, start, end, granularity, byCategory);
+            } else {
+                for (MonthCategoryTotal total : expenseRollupRepository.findMonthCategoryTotals(
+                        currentUser.getId(), firstFullMonth, lastFullMonth)) {
+                    accumulator.add(byCategory ? total.getCategory() : "", total.getPeriodMonth(),
+                            total.getTotal(), total.getExpenseCount());
+                }
+                if (start.isBefore(firstFullMonth)) {
+                    addGrouped(accumulator, currentUser, start, firstFullMonth.minusDays(1), granularity, byCategory);
+                }
+                LocalDate afterLastFullMonth = lastFullMonth.plusMonths(1);
+                if (!end.isBefore(afterLastFullMonth)) {
+                    addGrouped(accumulator, currentUser, afterLastFullMonth, end, granularity, byCategory);
+                }
+            }
+        } else {
+            addGrouped(accumulator, currentUser, start, end, granularity, byCategory);
+        }
+
+        return new ExpenseTimeSeries(granularity.name(), start, end, byCategory, buckets, accumulator.toSeries());
+    }
+
+    // The bucket and category expressions come from the fixed strings below, never from request input
+    private void addGrouped(SeriesAccumulator accumulator, User user, LocalDate from, LocalDate to,
+                            Granularity granularity, boolean byCategory) {
+        String bucketExpression = switch (granularity) {
+            case DAY -> "DATE(created_at)";
+            case WEEK -> "DATE_SUB(DATE(created_at), INTERVAL WEEKDAY(created_at) DAY)";
+            case MONTH -> "CAST(DATE_FORMAT(created_at, '%Y-%m-01') AS DATE)";
+        };
+        String categoryExpression = byCategory ? "COALESCE(category, '')" : "''";
+        String sql = "SELECT " + bucketExpression + " AS bucket, " + categoryExpression + " AS category_key, " +
+                "SUM(amount) AS total, COUNT(*) AS expense_count FROM expenses " +
+                "WHERE user_id = ? AND created_at >= ? AND created_at < ? GROUP BY bucket, category_key";
+        jdbcTemplate.query(sql, rs -> {
+            accumulator.add(rs.getString("category_key"), rs.getDate("bucket").toLocalDate(),
+                    rs.getBigDecimal("total"), rs.getLong("expense_count"));
+        }, user.getId(), Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+    }
+
+    private static LocalDate defaultStart(LocalDate end, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> end.minusDays(29);
+            case WEEK -> end.minusWeeks(11);
+            case MONTH -> end.withDayOfMonth(1).minusMonths(11);
+        };
+    }
+
+    private static LocalDate bucketOf(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate bucket, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> bucket.plusDays(1);
+            case WEEK -> bucket.plusWeeks(1);
+            case MONTH -> bucket.plusMonths(1);
+        };
+    }
+
+    public void rebuildRollups() {
+        User currentUser = securityUtil.getCurrentUser();
+        expenseRollupService.rebuildForUser(currentUser);
+    }
+
+    private Map<YearMonth, MonthTotal> monthTotals(User user, YearMonth start, YearMonth end) {
+        Map<YearMonth, MonthTotal> totals = new HashMap<>();
+        for (MonthTotal total : expenseRollupRepository.findMonthTotals(user.getId(), start.atDay(1), end.atDay(1))) {
+            totals.put(YearMonth.from(total.getPeriodMonth()), total);
+        }
+        return totals;
+    }
+
+    private static void validateRange(YearMonth start, YearMonth end) {
+        if (start.isAfter(end)) {
+            throw new ValidationException("from must not be after to");
+        }
+        if (ChronoUnit.MONTHS.between(start, end) >= MAX_MONTHS) {
+            throw new ValidationException("Range must not exceed " + MAX_MONTHS + " months");
+        }
+    }
+
+    private static BigDecimal totalOf(MonthTotal total) {
+        return total != null ? total.getTotal() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal percentOf(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return part.multiply(BigDecimal.valueOf(100)).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal changePercent(BigDecimal change, BigDecimal previous) {
+        return previous.signum() == 0 ? null : percentOf(change, previous);
+    }
+
+    // Dense per-category arrays over the bucket list; categories are keyed as stored, '' for none
+    private static class SeriesAccumulator {
+        private final Map<LocalDate, Integer> bucketIndex = new HashMap<>();
+        private final Map<String, BigDecimal[]> totals = new LinkedHashMap<>();
+        private final Map<String, long[]> counts = new HashMap<>();
+
+        SeriesAccumulator(List<LocalDate> buckets) {
+            for (int i = 0; i < buckets.size(); i++) {
+                bucketIndex.put(buckets.get(i), i);
+            }
+        }
+
+        void add(String category, LocalDate bucket, BigDecimal total, long count) {
+            Integer index = bucketIndex.get(bucket);
+            if (index == null) {
+                return;
+            }
+            BigDecimal[] categoryTotals = totals.computeIfAbsent(category, key -> zeroTotals());
+            categoryTotals[index] = categoryTotals[index].add(total);
+            counts.computeIfAbsent(category, key -> new long[bucketIndex.size()])[index] += count;
+        }
+
+        private BigDecimal[] zeroTotals() {
+            BigDecimal[] zeros = new BigDecimal[bucketIndex.size()];
+            Arrays.fill(zeros, BigDecimal.ZERO);
+            return zeros;
+        }
+
+        // Largest categories first; without categories this is the single overall series, zero-filled
+        List<ExpenseTimeSeries.Series> toSeries() {
+            if (totals.isEmpty()) {
+                totals.put("", zeroTotals());
+                counts.put("", new long[bucketIndex.size()]);
+            }
+            List<ExpenseTimeSeries.Series> series = new ArrayList<>(totals.size());
+            totals.forEach((category, values) -> series.add(new ExpenseTimeSeries.Series(
+                    category.isEmpty() ? null : category,
+                    Arrays.asList(values),
+                    Arrays.stream(counts.get(category)).boxed().toList())));
+            series.sort(Comparator.comparing((ExpenseTimeSeries.Series s) ->
+                    s.getTotals().stream().reduce(BigDecimal.ZERO, BigDecimal::add)).reversed());
+            return series;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the expense_rollups read model in step with expense writes. Callers invoke it inside their
+ * own transaction so the totals commit or roll back together with the expense. A periodic job compares
+ * the rollups with the expenses and rebuilds those that drifted.
+ */
+@Service
+@Transactional
+public class ExpenseRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseRollupService.class);
+
+    // Signed deltas; the first expense of a month and category creates the row
+    private static final String APPLY_SQL = "INSERT INTO expense_rollups (user_id, period_month, category, total, " +
+            "expense_count, updated_at) VALUES (?, ?, ?, ?, ?, NOW(6)) ON DUPLICATE KEY UPDATE " +
+            "total = total + VALUES(total), expense_count = expense_count + VALUES(expense_count), updated_at = NOW(6)";
+
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM expense_rollups " +
+            "WHERE user_id = ? AND period_month = ? AND category = ? AND expense_count = 0";
+
+    private static final int VERIFY_BATCH_SIZE = 500;
+
+    private static final String USERS_SQL = "SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Each amount weighted by a hash of its month and category; rollups only cover expenses with a created_at
+    private static final String EXPENSE_FINGERPRINTS_SQL = "SELECT user_id, COUNT(*) AS expense_count, " +
+            "SUM(amount) AS total, SUM(amount * CRC32(CONCAT(DATE_FORMAT(created_at, '%Y-%m-01'), " +
+            "COALESCE(category, '')))) AS checksum FROM expenses " +
+            "WHERE user_id IN (:userIds) AND created_at IS NOT NULL GROUP BY user_id";
+
+    private static final String ROLLUP_FINGERPRINTS_SQL = "SELECT user_id, SUM(expense_count) AS expense_count, " +
+            "SUM(total) AS total, SUM(total * CRC32(CONCAT(DATE_FORMAT(period_month, '%Y-%m-01'), category))) " +
+            "AS checksum FROM expense_rollups WHERE user_id IN (:userIds) GROUP BY user_id";
+
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate rebuildTransaction;
+
+    @Autowired
+    public ExpenseRollupService(ExpenseRollupRepository expenseRollupRepository,
+                                JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedJdbcTemplate,
+                                PlatformTransactionManager transactionManager) {
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public static LocalDate monthOf(LocalDateTime createdAt) {
+        return createdAt.toLocalDate().withDayOfMonth(1);
+    }
+
+    public static String categoryKey(String category) {
+        return category != null ? category : "";
+    }
+
+    public void expenseAdded(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCreatedAt(), expense.getCategory(), expense.getAmount(), 1);
+    }
+
+    public void expenseRemoved(Expense expense) {
+        apply(expense.getUser().getId(), expense.getCreatedAt(), expense.getCategory(), expense.getAmount(), -1);
+    }
+
+    /**
+     * Moves an edited expense's contribution from its previous amount and category to its current ones.
+     */
+    public void expenseChanged(BigDecimal previousAmount, String previousCategory, Expense expense) {
+        if (previousAmount != null && expense.getAmount() != null && previousAmount.compareTo(expense.getAmount()) == 0
+                && categoryKey(previousCategory).equals(categoryKey(expense.getCategory()))) {
+            return;
+        }
+        Long userId = expense.getUser().getId();
+        apply(userId, expense.getCreatedAt(), previousCategory, previousAmount, -1);
+        apply(userId, expense.getCreatedAt(), expense.getCategory(), expense.getAmount(), 1);
+    }
+
+    /**
+     * Applies the totals of many expenses created in the same month, one batched upsert per category.
+     */
+    public void expensesAdded(Long userId, LocalDateTime createdAt, List<Expense> expenses) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        Map<String, Long> counts = new HashMap<>();
+        for (Expense expense : expenses) {
+            String category = categoryKey(expense.getCategory());
+            totals.merge(category, expense.getAmount(), BigDecimal::add);
+            counts.merge(category, 1L, Long::sum);
+        }
+
+        Date month = Date.valueOf(monthOf(createdAt));
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((category, total) -> rows.add(new Object[]{userId, month, category, total, counts.get(category)}));
+        jdbcTemplate.batchUpdate(APPLY_SQL, rows);
+    }
+
+    private void apply(Long userId, LocalDateTime createdAt, String category, BigDecimal amount, int direction) {
+        if (createdAt == null || amount == null) {
+            return;
+        }
+        Date month = Date.valueOf(monthOf(createdAt));
+        String key = categoryKey(category);
+        jdbcTemplate.update(APPLY_SQL, userId, month, key, amount.multiply(BigDecimal.valueOf(direction)), direction);
+        if (direction < 0) {
+            jdbcTemplate.update(DELETE_EMPTY_SQL, userId, month, key);
+        }
+    }
+
+    /**
+     * Compares the rollups of the given users with their dated expenses by count, total and a checksum that
+     * weights each amount by its month and category, so an edit that moves money between months or categories
+     * is caught as well. Returns the users whose rollups differ.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findStale(Collection<Long> userIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userIds", userIds);
+        Map<Long, Fingerprint> rolledUp = new HashMap<>();
+        namedJdbcTemplate.query(ROLLUP_FINGERPRINTS_SQL, params, rs -> {
+            rolledUp.put(rs.getLong("user_id"), Fingerprint.of(rs));
+        });
+        List<Long> stale = new ArrayList<>();
+        namedJdbcTemplate.query(EXPENSE_FINGERPRINTS_SQL, params, rs -> {
+            long userId = rs.getLong("user_id");
+            if (!Fingerprint.of(rs).matches(rolledUp.remove(userId))) {
+                stale.add(userId);
+            }
+        });
+        // Rollups left over for users without dated expenses
+        stale.addAll(rolledUp.keySet());
+        return stale;
+    }
+
+    /**
+     * Rebuilds the rollups that no longer match the expenses, e.g. those of expenses written before
+     * expense_rollups existed or changed by a path that bypassed the deltas. Runs periodically on every
+     * node; a rebuild is idempotent, so overlapping runs only repeat work. Reports never rebuild themselves.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-verify-ms:21600000}",
+            initialDelayString = "${app.analytics.rollup-verify-initial-delay-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void verifyRollups() {
+        int rebuilt = 0;
+        long lastUserId = 0;
+        List<Long> userIds;
+        do {
+            userIds = jdbcTemplate.queryForList(USERS_SQL, Long.class, lastUserId, VERIFY_BATCH_SIZE);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            lastUserId = userIds.get(userIds.size() - 1);
+            for (Long userId : findStale(userIds)) {
+                try {
+                    rebuildTransaction.executeWithoutResult(status -> rebuild(userId));
+                    rebuilt++;
+                } catch (RuntimeException e) {
+                    // Left as is; the next run tries again
+                    logger.error("Rebuilding expense rollups for user {} failed", userId, e);
+                }
+            }
+        } while (userIds.size() == VERIFY_BATCH_SIZE);
+        if (rebuilt > 0) {
+            logger.info("Expense rollup verification rebuilt the rollups of {} users", rebuilt);
+        }
+    }
+
+    /**
+     * Replaces the user's rollups with a fresh aggregate of their expenses. Under REPEATABLE READ the
+     * INSERT ... SELECT reads expenses with shared next-key locks, so expense writes for the user wait
+     * for the rebuild to commit and then apply their deltas on top of it; none are lost or counted twice.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuildForUser(User user) {
+        rebuild(user.getId());
+    }
+
+    private void rebuild(Long userId) {
+        expenseRollupRepository.deleteByUserId(userId);
+        int rows = expenseRollupRepository.insertFromExpenses(userId);
+        logger.info("Rebuilt {} expense rollups for user {}", rows, userId);
+    }
+
+    private record Fingerprint(long count, BigDecimal total, BigDecimal checksum) {
+
+        static Fingerprint of(ResultSet rs) throws SQLException {
+            return new Fingerprint(rs.getLong("expense_count"), rs.getBigDecimal("total"), rs.getBigDecimal("checksum"));
+        }
+
+        boolean matches(Fingerprint other) {
+            return other != null && count == other.count
+                    && total.compareTo(other.total) == 0 && checksum.compareTo(other.checksum) == 0;
+        }
+    }
+}
@@ -1,36 +1,96 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.SliceResponse;
 import com.expensetracker.entity.Expense;
 import com.expensetracker.entity.User;
+import com.expensetracker.event.ExpenseChangedEvent;
+import com.expensetracker.event.ExpenseChangedEvent.SpendDelta;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.exception.UnauthorizedException;
+import com.expensetracker.exception.ValidationException;
 import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.util.CursorCodec;
 import com.expensetracker.util.SecurityUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ExpenseService {
 
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    // Cursor position of an expense without created_at; such rows form the tail of the slices
+    private static final String UNDATED = "undated";
+
+    // Entities use IDENTITY ids, which turns off Hibernate insert batching; this goes through JDBC instead.
+    // With rewriteBatchedStatements=true the driver sends each batch as multi-row INSERTs.
+    private static final String INSERT_SQL = "INSERT INTO expenses (amount, description, category, user_id, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService expenseRollupService;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int bulkMaxSize;
+    private final long countCacheTtlMillis;
+
+    // Expense count per user id for keyset listings; dropped whenever the user's expenses change
+    private final Map<Long, CachedCount> countCache = new ConcurrentHashMap<>();
 
     @Autowired
-    public ExpenseService(ExpenseRepository expenseRepository, SecurityUtil securityUtil) {
+    public ExpenseService(ExpenseRepository expenseRepository,
+                          ExpenseRollupService expenseRollupService,
+                          JsonStreamService jsonStreamService,
+                          SecurityUtil securityUtil,
+                          JdbcTemplate jdbcTemplate,
+                          Validator validator,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.expenses.bulk-max-size:5000}") int bulkMaxSize,
+                          @Value("${app.expenses.count-cache-ttl-seconds:60}") long countCacheTtlSeconds) {
         this.expenseRepository = expenseRepository;
+        this.expenseRollupService = expenseRollupService;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
+        this.jdbcTemplate = jdbcTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.bulkMaxSize = bulkMaxSize;
+        this.countCacheTtlMillis = countCacheTtlSeconds * 1000;
     }
 
-    public List<Expense> getAllExpenses() {
-        User currentUser = securityUtil.getCurrentUser();
-        return expenseRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllExpenses() {
+        return jsonStreamService.streamArray(expenseRepository::streamByUser);
     }
 
     public Page<Expense> getAllExpenses(int page, int size, String sortBy, String sortDir) {
@@ -41,36 +101,214 @@ public class ExpenseService {
         return expenseRepository.findByUser(currentUser, pageable);
     }
 
+    /**
+     * Keyset pagination over the user's expenses, newest first. Each slice is one range read on
+     * idx_expenses_user_date, with no OFFSET and no COUNT, so deep slices cost the same as the first.
+     * The total is only counted when asked for, and then cached for a short while. Legacy expenses without
+     * a creation time come last, ordered by id.
+     */
+    public SliceResponse<Expense> getExpenseSlice(String cursor, int size, boolean includeTotal) {
+        User currentUser = securityUtil.getCurrentUser();
+        // One extra row tells whether another slice follows
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<Expense> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findFirstSlice(currentUser, limit);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            LocalDateTime createdAt;
+            Long id;
+            try {
+                createdAt = UNDATED.equals(parts[0]) ? null : LocalDateTime.parse(parts[0]);
+                id = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+            rows = createdAt != null
+                    ? expenseRepository.findSliceAfter(currentUser, createdAt, id, limit)
+                    : expenseRepository.findUndatedSliceAfter(currentUser, id, limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Expense> content = rows.subList(0, Math.min(size, rows.size()));
+        String nextCursor = null;
+        if (hasNext) {
+            Expense last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt() != null ? last.getCreatedAt() : UNDATED, last.getId());
+        }
+        Long total = includeTotal ? countExpenses(currentUser) : null;
+        return new SliceResponse<>(content, size, nextCursor, hasNext, total);
+    }
+
+    private long countExpenses(User user) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = countCache.get(user.getId());
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+        long count = expenseRepository.countByUser(user);
+        countCache.put(user.getId(), new CachedCount(count, now + countCacheTtlMillis));
+        return count;
+    }
+
+    private void evictCount(User user) {
+        countCache.remove(user.getId());
+    }
+
     public Expense getExpenseById(Long id) {
         User currentUser = securityUtil.getCurrentUser();
         return expenseRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", id));
     }
 
+    @Transactional
     public Expense createExpense(Expense expense) {
         User currentUser = securityUtil.getCurrentUser();
         expense.setUser(currentUser);
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        expenseRollupService.expenseAdded(savedExpense);
+        evictCount(currentUser);
+        publishChange(currentUser, delta(savedExpense.getCategory(), savedExpense.getCreatedAt(), savedExpense.getAmount()));
+        return savedExpense;
     }
 
+    /**
+     * Creates all expenses or none. The whole list is validated before anything is written.
+     *
+     * @return ids of the created expenses, in input order
+     */
+    @Transactional
+    public List<Long> createExpenses(List<Expense> expenses) {
+        User currentUser = securityUtil.getCurrentUser();
+        if (expenses == null || expenses.isEmpty()) {
+            throw new ValidationException("At least one expense is required");
+        }
+        if (expenses.size() > bulkMaxSize) {
+            throw new ValidationException("At most " + bulkMaxSize + " expenses can be created per request");
+        }
+        validateAll(expenses);
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(createdAt);
+        List<Long> ids = new ArrayList<>(expenses.size());
+        for (int from = 0; from < expenses.size(); from += BATCH_SIZE) {
+            List<Expense> chunk = expenses.subList(from, Math.min(from + BATCH_SIZE, expenses.size()));
+            jdbcTemplate.execute(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    (PreparedStatement ps) -> {
+                        for (Expense expense : chunk) {
+                            ps.setBigDecimal(1, expense.getAmount());
+                            ps.setString(2, expense.getDescription());
+                            ps.setString(3, expense.getCategory());
+                            ps.setLong(4, currentUser.getId());
+                            ps.setTimestamp(5, now);
+                            ps.setTimestamp(6, now);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            while (keys.next()) {
+                                ids.add(keys.getLong(1));
+                            }
+                        }
+                        return null;
+                    });
+        }
+        if (ids.size() != expenses.size()) {
+            throw new IllegalStateException("Expected " + expenses.size() + " generated ids, got " + ids.size());
+        }
+        expenseRollupService.expensesAdded(currentUser.getId(), createdAt, expenses);
+        evictCount(currentUser);
+
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Expense expense : expenses) {
+            totals.merge(ExpenseRollupService.categoryKey(expense.getCategory()), expense.getAmount(), BigDecimal::add);
+        }
+        publishChange(currentUser, totals.entrySet().stream()
+                .map(total -> delta(total.getKey().isEmpty() ? null : total.getKey(), createdAt, total.getValue()))
+                .toArray(SpendDelta[]::new));
+        return ids;
+    }
+
+    private void validateAll(List<Expense> expenses) {
+        List<String> errors = new ArrayList<>();
+        int invalid = 0;
+        for (int i = 0; i < expenses.size(); i++) {
+            String error = validate(expenses.get(i));
+            if (error != null) {
+                invalid++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("[" + i + "] " + error);
+                }
+            }
+        }
+        if (invalid > 0) {
+            throw new ValidationException(invalid + " invalid expense(s), nothing was created: " + String.join("; ", errors));
+        }
+    }
+
+    private String validate(Expense expense) {
+        if (expense == null) {
+            return "Expense is required";
+        }
+        Set<ConstraintViolation<Expense>> violations = validator.validate(expense);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (expense.getDescription() != null && expense.getDescription().length() > 500) {
+            return "Description must be at most 500 characters";
+        }
+        if (expense.getCategory() != null && expense.getCategory().length() > 100) {
+            return "Category must be at most 100 characters";
+        }
+        return null;
+    }
+
+    @Transactional
     public Expense updateExpense(Long id, Expense expenseDetails) {
         User currentUser = securityUtil.getCurrentUser();
         Expense expense = expenseRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", id));
+        BigDecimal previousAmount = expense.getAmount();
+        String previousCategory = expense.getCategory();
 
         expense.setAmount(expenseDetails.getAmount());
         expense.setDescription(expenseDetails.getDescription());
         expense.setCategory(expenseDetails.getCategory());
 
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        expenseRollupService.expenseChanged(previousAmount, previousCategory, savedExpense);
+        publishChange(currentUser, delta(previousCategory, savedExpense.getCreatedAt(), previousAmount.negate()),
+                delta(savedExpense.getCategory(), savedExpense.getCreatedAt(), savedExpense.getAmount()));
+        return savedExpense;
     }
 
+    @Transactional
     public void deleteExpense(Long id) {
         User currentUser = securityUtil.getCurrentUser();
-        if (!expenseRepository.existsByIdAndUser(id, currentUser)) {
-            throw new ResourceNotFoundException("Expense", id);
+        // Loaded rather than just checked, so its contribution can be taken out of the rollups
+        Expense expense = expenseRepository.findByIdAndUser(id, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Expense", id));
+        expenseRepository.delete(expense);
+        expenseRollupService.expenseRemoved(expense);
+        evictCount(currentUser);
+        publishChange(currentUser, delta(expense.getCategory(), expense.getCreatedAt(), expense.getAmount().negate()));
+    }
+
+    // Listeners (budget alerts) run after the transaction commits, off the request thread
+    private void publishChange(User user, SpendDelta... deltas) {
+        List<SpendDelta> changes = Arrays.stream(deltas).filter(Objects::nonNull).toList();
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ExpenseChangedEvent(user.getId(), changes));
         }
-        expenseRepository.deleteById(id);
+    }
+
+    // Null for legacy rows without a creation time, which belong to no month
+    private static SpendDelta delta(String category, LocalDateTime createdAt, BigDecimal amount) {
+        return createdAt != null ? new SpendDelta(category, ExpenseRollupService.monthOf(createdAt), amount) : null;
+    }
+
+    private record CachedCount(long count, long expiresAt) {
     }
 }
 
@@ -0,0 +1,45 @@
+package com.expensetracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each reminder as one JSON line to app.ledger.reminders.file, for pickup by an external mailer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ledger.reminders.sink", havingValue = "file")
+public class FileReminderNotifier implements ReminderNotifier {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public FileReminderNotifier(@Value("${app.ledger.reminders.file:reminders.ndjson}") String file,
+                                ObjectMapper objectMapper) {
+        this.file = Path.of(file);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void notify(DueReminder reminder) {
+        try {
+            String line = objectMapper.writeValueAsString(reminder) + "\n";
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reminder for entry " + reminder.entryId(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
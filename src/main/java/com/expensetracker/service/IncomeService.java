@@ -6,25 +6,30 @@ import com.expensetracker.repository.IncomeRepository;
 import com.expensetracker.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class IncomeService {
 
     private final IncomeRepository incomeRepository;
+    private final BudgetIncomeService budgetIncomeService;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public IncomeService(IncomeRepository incomeRepository, SecurityUtil securityUtil) {
+    public IncomeService(IncomeRepository incomeRepository, BudgetIncomeService budgetIncomeService,
+                         JsonStreamService jsonStreamService, SecurityUtil securityUtil) {
         this.incomeRepository = incomeRepository;
+        this.budgetIncomeService = budgetIncomeService;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<Income> getAllIncome() {
-        User currentUser = securityUtil.getCurrentUser();
-        return incomeRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllIncome() {
+        return jsonStreamService.streamArray(incomeRepository::streamByUser);
     }
 
     public Optional<Income> getIncomeById(Long id) {
@@ -32,12 +37,16 @@ public class IncomeService {
         return incomeRepository.findByIdAndUser(id, currentUser);
     }
 
+    @Transactional
     public Income createIncome(Income income) {
         User currentUser = securityUtil.getCurrentUser();
         income.setUser(currentUser);
-        return incomeRepository.save(income);
+        Income savedIncome = incomeRepository.save(income);
+        budgetIncomeService.incomeChanged(currentUser);
+        return savedIncome;
     }
 
+    @Transactional
     public Income updateIncome(Long id, Income incomeDetails) {
         User currentUser = securityUtil.getCurrentUser();
         Income income = incomeRepository.findByIdAndUser(id, currentUser)
@@ -47,15 +56,19 @@ public class IncomeService {
         income.setDescription(incomeDetails.getDescription());
         income.setSource(incomeDetails.getSource());
 
-        return incomeRepository.save(income);
+        Income savedIncome = incomeRepository.save(income);
+        budgetIncomeService.incomeChanged(currentUser);
+        return savedIncome;
     }
 
+    @Transactional
     public void deleteIncome(Long id) {
         User currentUser = securityUtil.getCurrentUser();
         if (!incomeRepository.existsByIdAndUser(id, currentUser)) {
             throw new RuntimeException("Income not found with id: " + id);
         }
         incomeRepository.deleteById(id);
+        budgetIncomeService.incomeChanged(currentUser);
     }
 }
 
@@ -0,0 +1,432 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.event.LedgerChangedEvent;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import com.expensetracker.util.JdbcBatchInserts;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Charges monthly interest on overdue party balances. Parties with an interest rate are split into
+ * partitions that are processed in parallel on a bounded fork/join pool, each partition in its own
+ * transaction. The overdue balance of every day of the month is rebuilt from ledger_entries with a few
+ * grouped queries per partition; purchases that are not yet due (see dueDate) are not overdue. The
+ * interest is posted as one ADJUSTMENT entry per party on the last day of the month, inserted in a JDBC
+ * batch, followed by a single running-balance recompute per party.
+ *
+ * Every charged month is recorded in interest_accruals in the same transaction as its entry, so a run
+ * that is repeated or resumed after a crash skips the parties that were already charged.
+ */
+@Service
+public class InterestAccrualService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualService.class);
+
+    private static final int PARTITION_SIZE = 50;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    // A month is only charged at a rate that applied from its first day; parties whose rate predates
+    // interest_rate_since fall back to their last update, the latest the rate can have been set
+    private static final String PARTIES_SQL = "SELECT id, user_id, interest_rate FROM parties " +
+            "WHERE interest_rate > 0 AND COALESCE(interest_rate_since, DATE(updated_at)) <= :periodStart ORDER BY id";
+
+    private static final String LATEST_ACCRUED_SQL = "SELECT MAX(period_month) FROM interest_accruals";
+
+    private static final String ACCRUED_SQL = "SELECT party_id FROM interest_accruals " +
+            "WHERE period_month = :periodMonth AND party_id IN (:partyIds)";
+
+    private static final String BALANCE_BEFORE_SQL = "SELECT p.id, COALESCE(p.opening_balance, 0) + " +
+            "COALESCE(SUM(CASE WHEN le.transaction_type = 'PAYMENT' THEN -le.amount ELSE le.amount END), 0) AS balance " +
+            "FROM parties p LEFT JOIN ledger_entries le ON le.party_id = p.id AND le.transaction_date < :periodStart " +
+            "WHERE p.id IN (:partyIds) GROUP BY p.id, p.opening_balance";
+
+    private static final String DAILY_CHANGES_SQL = "SELECT party_id, transaction_date, " +
+            "SUM(CASE WHEN transaction_type = 'PAYMENT' THEN -amount ELSE amount END) AS net_change " +
+            "FROM ledger_entries WHERE party_id IN (:partyIds) AND transaction_date BETWEEN :periodStart AND :periodEnd " +
+            "GROUP BY party_id, transaction_date";
+
+    // Purchases that were still within their credit period on some day of the month
+    private static final String NOT_YET_DUE_SQL = "SELECT party_id, transaction_date, due_date, SUM(amount) AS amount " +
+            "FROM ledger_entries WHERE party_id IN (:partyIds) AND transaction_type = 'PURCHASE' " +
+            "AND transaction_date <= :periodEnd AND due_date > :periodStart " +
+            "GROUP BY party_id, transaction_date, due_date";
+
+    private static final String INSERT_ENTRY_SQL = "INSERT INTO ledger_entries (party_id, user_id, transaction_type, amount, " +
+            "transaction_date, description, reference_number, created_at, updated_at) " +
+            "VALUES (?, ?, 'ADJUSTMENT', ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACCRUAL_SQL = "INSERT INTO interest_accruals (party_id, user_id, period_month, " +
+            "interest_rate, average_overdue, amount, ledger_entry_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum Status {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PartyLockManager partyLockManager;
+    private final PartyBalanceService partyBalanceService;
+    private final LedgerEventStore ledgerEventStore;
+    private final RunningBalanceQueue runningBalanceQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate partitionTransaction;
+    private final boolean enabled;
+    private final int parallelism;
+
+    private volatile Run currentRun;
+
+    @Autowired
+    public InterestAccrualService(NamedParameterJdbcTemplate jdbcTemplate,
+                                  PartyLockManager partyLockManager,
+                                  PartyBalanceService partyBalanceService,
+                                  LedgerEventStore ledgerEventStore,
+                                  RunningBalanceQueue runningBalanceQueue,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.ledger.interest.enabled:false}") boolean enabled,
+                                  @Value("${app.ledger.interest.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partyLockManager = partyLockManager;
+        this.partyBalanceService = partyBalanceService;
+        this.ledgerEventStore = ledgerEventStore;
+        this.runningBalanceQueue = runningBalanceQueue;
+        this.eventPublisher = eventPublisher;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.partitionTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Charges the month that just ended; by default shortly after midnight on the 1st.
+     */
+    @Scheduled(cron = "${app.ledger.interest.cron:0 30 1 1 * *}")
+    public void accruePreviousMonth() {
+        if (enabled) {
+            start(YearMonth.now().minusMonths(1));
+        }
+    }
+
+    /**
+     * Starts an accrual run for the given month in the background. Only months that have ended and are
+     * not older than the latest accrued month can be charged, i.e. the months a scheduled run missed or
+     * left unfinished; interest is never back-dated past that.
+     *
+     * @return false if a run is already in progress
+     * @throws IllegalStateException if interest accrual is disabled
+     */
+    public synchronized boolean start(YearMonth period) {
+        if (!enabled) {
+            throw new IllegalStateException("Interest accrual is disabled (app.ledger.interest.enabled=false)");
+        }
+        if (!period.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Interest can only be accrued for months that have ended");
+        }
+        LocalDate latestAccrued = jdbcTemplate.getJdbcTemplate().queryForObject(LATEST_ACCRUED_SQL, LocalDate.class);
+        if (latestAccrued != null && period.isBefore(YearMonth.from(latestAccrued))) {
+            throw new IllegalArgumentException("Interest has already been accrued for " + YearMonth.from(latestAccrued) +
+                    "; earlier months cannot be charged");
+        }
+        if (currentRun != null && currentRun.status == Status.RUNNING) {
+            return false;
+        }
+        Run run = new Run(period);
+        currentRun = run;
+
+        Thread runner = new Thread(() -> execute(run), "interest-accrual");
+        runner.setDaemon(true);
+        runner.start();
+        return true;
+    }
+
+    public AccrualReport getReport() {
+        Run run = currentRun;
+        if (run == null) {
+            return new AccrualReport(Status.IDLE, null, null, null, 0, 0, 0, 0, BigDecimal.ZERO);
+        }
+        return new AccrualReport(run.status, run.period.toString(), run.startedAt, run.finishedAt,
+                run.partiesTotal, run.partiesCharged.get(), run.partiesAlreadyAccrued.get(),
+                run.failedPartitions.get(), run.totalInterest.get());
+    }
+
+    private void execute(Run run) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<PartyRow> parties = jdbcTemplate.query(PARTIES_SQL,
+                    new MapSqlParameterSource("periodStart", run.period.atDay(1)), (rs, rowNum) ->
+                    new PartyRow(rs.getLong("id"), rs.getLong("user_id"), rs.getBigDecimal("interest_rate")));
+            run.partiesTotal = parties.size();
+            pool.invoke(new AccrueBatch(run, parties));
+            run.status = Status.COMPLETED;
+            logger.info("Interest accrual for {} finished: {} parties charged {}, {} already accrued, {} failed partitions",
+                    run.period, run.partiesCharged.get(), run.totalInterest.get(),
+                    run.partiesAlreadyAccrued.get(), run.failedPartitions.get());
+        } catch (RuntimeException e) {
+            run.status = Status.FAILED;
+            logger.error("Interest accrual for {} failed", run.period, e);
+        } finally {
+            run.finishedAt = Instant.now();
+            pool.shutdown();
+        }
+    }
+
+    private void accruePartition(Run run, List<PartyRow> partition) {
+        try {
+            partitionTransaction.executeWithoutResult(status -> accrue(run, partition));
+        } catch (RuntimeException e) {
+            // Nothing of the partition was written; the next run picks it up again
+            run.failedPartitions.incrementAndGet();
+            logger.error("Interest accrual for {} failed for parties {}..{}", run.period,
+                    partition.get(0).id(), partition.get(partition.size() - 1).id(), e);
+        }
+    }
+
+    private void accrue(Run run, List<PartyRow> partition) {
+        LocalDate periodStart = run.period.atDay(1);
+        LocalDate periodEnd = run.period.atEndOfMonth();
+
+        // Locked first, so the balances read below cannot change until the interest is posted
+        Map<Long, Party> parties = partyLockManager.lockParties(partition.stream().map(PartyRow::id).toList(), null)
+                .stream()
+                .collect(Collectors.toMap(Party::getId, party -> party));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("partyIds", parties.keySet())
+                .addValue("periodMonth", periodStart)
+                .addValue("periodStart", periodStart)
+                .addValue("periodEnd", periodEnd);
+        Set<Long> accrued = new HashSet<>(jdbcTemplate.queryForList(ACCRUED_SQL, params, Long.class));
+        run.partiesAlreadyAccrued.addAndGet(accrued.size());
+        List<PartyRow> pending = partition.stream()
+                .filter(row -> parties.containsKey(row.id()) && !accrued.contains(row.id()))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        params.addValue("partyIds", pending.stream().map(PartyRow::id).toList());
+
+        int days = periodStart.lengthOfMonth();
+        Map<Long, BigDecimal> openingBalances = new HashMap<>();
+        jdbcTemplate.query(BALANCE_BEFORE_SQL, params, rs -> {
+            openingBalances.put(rs.getLong("id"), rs.getBigDecimal("balance"));
+        });
+        Map<Long, BigDecimal[]> dailyChanges = new HashMap<>();
+        jdbcTemplate.query(DAILY_CHANGES_SQL, params, rs -> {
+            int day = rs.getDate("transaction_date").toLocalDate().getDayOfMonth() - 1;
+            dailyChanges.computeIfAbsent(rs.getLong("party_id"), id -> zeros(days + 1))[day] = rs.getBigDecimal("net_change");
+        });
+        // Not-yet-due amounts as a difference array: added from the purchase (or month start), removed on the due date
+        Map<Long, BigDecimal[]> notDueChanges = new HashMap<>();
+        jdbcTemplate.query(NOT_YET_DUE_SQL, params, rs -> {
+            LocalDate from = rs.getDate("transaction_date").toLocalDate();
+            LocalDate due = rs.getDate("due_date").toLocalDate();
+            if (from.isBefore(periodStart)) {
+                from = periodStart;
+            }
+            if (!due.isAfter(from)) {
+                return;
+            }
+            BigDecimal amount = rs.getBigDecimal("amount");
+            BigDecimal[] changes = notDueChanges.computeIfAbsent(rs.getLong("party_id"), id -> zeros(days + 1));
+            int fromDay = (int) ChronoUnit.DAYS.between(periodStart, from);
+            int dueDay = (int) Math.min(ChronoUnit.DAYS.between(periodStart, due), days);
+            changes[fromDay] = changes[fromDay].add(amount);
+            changes[dueDay] = changes[dueDay].subtract(amount);
+        });
+
+        String reference = "INT-" + run.period;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Charge> charges = new ArrayList<>(pending.size());
+        List<Object[]> entryRows = new ArrayList<>();
+        List<Long> entryPartyIds = new ArrayList<>();
+        for (PartyRow row : pending) {
+            BigDecimal overdueDays = overdueBalanceDays(openingBalances.getOrDefault(row.id(), BigDecimal.ZERO),
+                    dailyChanges.getOrDefault(row.id(), zeros(days + 1)),
+                    notDueChanges.getOrDefault(row.id(), zeros(days + 1)), days);
+            BigDecimal interest = overdueDays.multiply(row.rate())
+                    .divide(HUNDRED.multiply(BigDecimal.valueOf(periodStart.lengthOfYear())), 2, RoundingMode.HALF_UP);
+            BigDecimal averageOverdue = overdueDays.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+            charges.add(new Charge(row, averageOverdue, interest));
+
+            if (interest.signum() > 0) {
+                entryRows.add(new Object[]{
+                        row.id(),
+                        row.userId(),
+                        interest,
+                        Date.valueOf(periodEnd),
+                        "Interest on overdue balance for " + run.period + " at " + row.rate().stripTrailingZeros().toPlainString() + "% p.a.",
+                        reference,
+                        now,
+                        now
+                });
+                entryPartyIds.add(row.id());
+            }
+        }
+
+        Map<Long, Long> entryIds = new HashMap<>();
+        List<Long> generatedIds = JdbcBatchInserts.insertReturningIds(jdbcTemplate.getJdbcTemplate(), INSERT_ENTRY_SQL, entryRows);
+        for (int i = 0; i < generatedIds.size(); i++) {
+            entryIds.put(entryPartyIds.get(i), generatedIds.get(i));
+        }
+
+        List<Object[]> accrualRows = new ArrayList<>(charges.size());
+        for (Charge charge : charges) {
+            accrualRows.add(new Object[]{
+                    charge.party().id(),
+                    charge.party().userId(),
+                    Date.valueOf(periodStart),
+                    charge.party().rate(),
+                    charge.averageOverdue(),
+                    charge.interest(),
+                    entryIds.get(charge.party().id()),
+                    now
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_ACCRUAL_SQL, accrualRows);
+
+        Map<Long, Set<Long>> changedByUser = new HashMap<>();
+        for (Charge charge : charges) {
+            Long entryId = entryIds.get(charge.party().id());
+            if (entryId == null) {
+                continue;
+            }
+            Party party = parties.get(charge.party().id());
+            ledgerEventStore.ensureStarted(party);
+            partyBalanceService.applyEntry(party.getId(), LedgerEntry.TransactionType.ADJUSTMENT, charge.interest(), 1);
+            ledgerEventStore.entriesImported(party.getId(), List.of(entryId));
+            // The interest entry is the only new row of the party, so one recompute from it covers the ledger
+            runningBalanceQueue.recalculateFrom(party, new LedgerPosition(periodEnd, entryId));
+            changedByUser.computeIfAbsent(charge.party().userId(), id -> new HashSet<>()).add(party.getId());
+
+            run.partiesCharged.incrementAndGet();
+            run.totalInterest.accumulateAndGet(charge.interest(), BigDecimal::add);
+        }
+        changedByUser.forEach((userId, partyIds) -> eventPublisher.publishEvent(new LedgerChangedEvent(userId, partyIds)));
+    }
+
+    /**
+     * Sum over the days of the month of the end-of-day overdue balance (balance minus purchases not yet
+     * due, never negative), i.e. the balance-days the interest is charged on.
+     */
+    private static BigDecimal overdueBalanceDays(BigDecimal openingBalance, BigDecimal[] dailyChanges,
+                                                 BigDecimal[] notDueChanges, int days) {
+        BigDecimal balance = openingBalance;
+        BigDecimal notDue = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        for (int day = 0; day < days; day++) {
+            balance = balance.add(dailyChanges[day]);
+            notDue = notDue.add(notDueChanges[day]);
+            BigDecimal overdue = balance.subtract(notDue);
+            if (overdue.signum() > 0) {
+                total = total.add(overdue);
+            }
+        }
+        return total;
+    }
+
+    private static BigDecimal[] zeros(int length) {
+        BigDecimal[] values = new BigDecimal[length];
+        Arrays.fill(values, BigDecimal.ZERO);
+        return values;
+    }
+
+    private class AccrueBatch extends RecursiveAction {
+        private final Run run;
+        private final List<PartyRow> parties;
+
+        AccrueBatch(Run run, List<PartyRow> parties) {
+            this.run = run;
+            this.parties = parties;
+        }
+
+        @Override
+        protected void compute() {
+            if (parties.size() <= PARTITION_SIZE) {
+                if (!parties.isEmpty()) {
+                    accruePartition(run, parties);
+                }
+                return;
+            }
+            int middle = parties.size() / 2;
+            invokeAll(new AccrueBatch(run, parties.subList(0, middle)),
+                    new AccrueBatch(run, parties.subList(middle, parties.size())));
+        }
+    }
+
+    private record PartyRow(Long id, Long userId, BigDecimal rate) {
+    }
+
+    private record Charge(PartyRow party, BigDecimal averageOverdue, BigDecimal interest) {
+    }
+
+    private static class Run {
+        private final YearMonth period;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile int partiesTotal;
+        private final AtomicLong partiesCharged = new AtomicLong();
+        private final AtomicLong partiesAlreadyAccrued = new AtomicLong();
+        private final AtomicLong failedPartitions = new AtomicLong();
+        private final AtomicReference<BigDecimal> totalInterest = new AtomicReference<>(BigDecimal.ZERO);
+
+        Run(YearMonth period) {
+            this.period = period;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccrualReport {
+        private Status status;
+        private String period;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private int partiesTotal;
+        private long partiesCharged;
+        private long partiesAlreadyAccrued;
+        private long failedPartitions;
+        private BigDecimal totalInterest;
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.util.SecurityUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's rows as a JSON array straight from a forward-only database cursor, one element at a
+ * time. Each entity is detached once written, so neither the persistence context nor the response
+ * buffer grows with the number of rows.
+ */
+@Service
+public class JsonStreamService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final SecurityUtil securityUtil;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+
+    @Autowired
+    public JsonStreamService(SecurityUtil securityUtil,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.securityUtil = securityUtil;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // Flushing after every element would turn each row into its own network write
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Streams the rows the query returns for the current user. The query must return a database-backed
+     * stream (see the streamByUser repository methods); it is consumed inside its own read-only transaction.
+     */
+    public <T> StreamingResponseBody streamArray(Function<User, Stream<T>> query) {
+        // The body is written on an async thread, so the user is resolved beforehand
+        Long userId = securityUtil.getCurrentUser().getId();
+        return outputStream -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    // Loaded first, so the rows' lazy user references resolve to it without extra queries,
+                    // which a streaming result set would not allow
+                    User user = entityManager.find(User.class, userId);
+                    try (Stream<T> rows = query.apply(user);
+                         JsonGenerator generator = objectMapper.getFactory()
+                                 .createGenerator(new BufferedOutputStream(outputStream, BUFFER_SIZE))) {
+                        // The servlet container owns the response stream; only flush it
+                        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                        generator.writeStartArray();
+                        Iterator<T> iterator = rows.iterator();
+                        while (iterator.hasNext()) {
+                            T row = iterator.next();
+                            elementWriter.writeValue(generator, row);
+                            entityManager.detach(row);
+                        }
+                        generator.writeEndArray();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client went away or the stream failed; stop writing
+                throw e.getCause();
+            }
+        };
+    }
+}
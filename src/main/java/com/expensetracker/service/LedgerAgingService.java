@@ -0,0 +1,142 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.AgingReport;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.LedgerChangedEvent;
+import com.expensetracker.util.SecurityUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receivables aging across all parties of a user. Payments are allocated FIFO against the oldest
+ * purchases and adjustments (the opening balance counts as the oldest debit), and whatever remains
+ * unpaid is bucketed by age. The whole report is one query; results are cached per user until the
+ * next ledger change on this node, and for at most app.ledger.aging-cache-ttl-seconds, which bounds
+ * how long a change made on another node goes unseen.
+ */
+@Service
+public class LedgerAgingService {
+
+    // Debits are numbered in FIFO order; an item is unpaid by however much its cumulative total exceeds all payments
+    private static final String AGING_SQL =
+            "WITH debits AS ( " +
+            "  SELECT p.id AS party_id, COALESCE(DATE(p.created_at), DATE '1970-01-01') AS age_date, " +
+            "         0 AS fifo_group, 0 AS entry_id, p.opening_balance AS amount " +
+            "  FROM parties p WHERE p.user_id = :userId AND p.opening_balance > 0 " +
+            "  UNION ALL " +
+            "  SELECT le.party_id, le.transaction_date, 1, le.id, le.amount " +
+            "  FROM ledger_entries le " +
+            "  WHERE le.user_id = :userId AND le.transaction_type <> 'PAYMENT' AND le.transaction_date <= :asOf " +
+            "), allocated AS ( " +
+            "  SELECT party_id, age_date, amount, " +
+            "         SUM(amount) OVER (PARTITION BY party_id ORDER BY fifo_group, age_date, entry_id " +
+            "                           ROWS UNBOUNDED PRECEDING) AS cumulative " +
+            "  FROM debits " +
+            "), credits AS ( " +
+            "  SELECT p.id AS party_id, " +
+            "         GREATEST(-COALESCE(p.opening_balance, 0), 0) + COALESCE(SUM(le.amount), 0) AS paid " +
+            "  FROM parties p " +
+            "  LEFT JOIN ledger_entries le ON le.party_id = p.id AND le.transaction_type = 'PAYMENT' " +
+            "       AND le.transaction_date <= :asOf " +
+            "  WHERE p.user_id = :userId " +
+            "  GROUP BY p.id, p.opening_balance " +
+            "), open_items AS ( " +
+            "  SELECT a.party_id, DATEDIFF(:asOf, a.age_date) AS age_days, " +
+            "         LEAST(a.amount, GREATEST(a.cumulative - c.paid, 0)) AS unpaid " +
+            "  FROM allocated a JOIN credits c ON c.party_id = a.party_id " +
+            ") " +
+            "SELECT p.id AS party_id, p.name AS party_name, " +
+            "       SUM(CASE WHEN o.age_days <= 30 THEN o.unpaid ELSE 0 END) AS days_0_30, " +
+            "       SUM(CASE WHEN o.age_days BETWEEN 31 AND 60 THEN o.unpaid ELSE 0 END) AS days_31_60, " +
+            "       SUM(CASE WHEN o.age_days BETWEEN 61 AND 90 THEN o.unpaid ELSE 0 END) AS days_61_90, " +
+            "       SUM(CASE WHEN o.age_days > 90 THEN o.unpaid ELSE 0 END) AS over_90, " +
+            "       SUM(o.unpaid) AS total_due " +
+            "FROM open_items o JOIN parties p ON p.id = o.party_id " +
+            "GROUP BY p.id, p.name " +
+            "HAVING SUM(o.unpaid) > 0 " +
+            "ORDER BY total_due DESC, p.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SecurityUtil securityUtil;
+
+    private final long cacheTtlMillis;
+
+    private final Map<Long, CachedReport> cache = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a report computed before a commit is never cached after it
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public LedgerAgingService(NamedParameterJdbcTemplate jdbcTemplate,
+                              SecurityUtil securityUtil,
+                              @Value("${app.ledger.aging-cache-ttl-seconds:60}") long cacheTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.securityUtil = securityUtil;
+        this.cacheTtlMillis = cacheTtlSeconds * 1000;
+    }
+
+    public AgingReport getAgingReport(LocalDate asOf) {
+        User currentUser = securityUtil.getCurrentUser();
+        LocalDate reportDate = asOf != null ? asOf : LocalDate.now();
+
+        long now = System.currentTimeMillis();
+        CachedReport cached = cache.get(currentUser.getId());
+        if (cached != null && cached.expiresAt() > now && cached.report().getAsOf().equals(reportDate)) {
+            return cached.report();
+        }
+
+        long startGeneration = generation.get();
+        AgingReport report = buildReport(currentUser.getId(), reportDate);
+        if (generation.get() == startGeneration) {
+            cache.put(currentUser.getId(), new CachedReport(report, now + cacheTtlMillis));
+        }
+        return report;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        generation.incrementAndGet();
+        cache.remove(event.userId());
+    }
+
+    private AgingReport buildReport(Long userId, LocalDate asOf) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("asOf", Date.valueOf(asOf));
+
+        List<AgingReport.PartyAging> parties = jdbcTemplate.query(AGING_SQL, params, (rs, rowNum) ->
+                new AgingReport.PartyAging(
+                        rs.getLong("party_id"),
+                        rs.getString("party_name"),
+                        rs.getBigDecimal("days_0_30"),
+                        rs.getBigDecimal("days_31_60"),
+                        rs.getBigDecimal("days_61_90"),
+                        rs.getBigDecimal("over_90"),
+                        rs.getBigDecimal("total_due")));
+
+        AgingReport report = new AgingReport();
+        report.setAsOf(asOf);
+        report.setParties(parties);
+        for (AgingReport.PartyAging party : parties) {
+            report.setDays0To30(report.getDays0To30().add(party.getDays0To30()));
+            report.setDays31To60(report.getDays31To60().add(party.getDays31To60()));
+            report.setDays61To90(report.getDays61To90().add(party.getDays61To90()));
+            report.setOver90Days(report.getOver90Days().add(party.getOver90Days()));
+            report.setTotalDue(report.getTotalDue().add(party.getTotalDue()));
+        }
+        return report;
+    }
+
+    private record CachedReport(AgingReport report, long expiresAt) {
+    }
+}
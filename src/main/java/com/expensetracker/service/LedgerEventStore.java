@@ -0,0 +1,224 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.LedgerEvent;
+import com.expensetracker.entity.LedgerSnapshot;
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.LedgerEventRepository;
+import com.expensetracker.repository.LedgerSnapshotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Append-only audit journal of ledger changes, kept when app.ledger.journal.enabled=true. It is written
+ * alongside ledger_entries, which remain the system of record and are still updated in place; the journal
+ * adds one event row per change (two for an edit) and a snapshot every app.ledger.journal.snapshot-interval
+ * events. Edits and deletes append a compensating ENTRY_REVERSED event instead of touching earlier ones,
+ * so the journal is a complete history. The journal balance is its latest snapshot plus the events after it.
+ *
+ * All methods must be called with the party locked (see PartyLockManager), which keeps the per-party
+ * sequence numbers gap-free. The last sequence number of each party is looked up once per transaction.
+ */
+@Service
+@Transactional
+public class LedgerEventStore {
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    private final LedgerEventRepository ledgerEventRepository;
+    private final LedgerSnapshotRepository ledgerSnapshotRepository;
+    private final PartyBalanceService partyBalanceService;
+    private final boolean enabled;
+    private final long snapshotInterval;
+
+    @Autowired
+    public LedgerEventStore(LedgerEventRepository ledgerEventRepository,
+                            LedgerSnapshotRepository ledgerSnapshotRepository,
+                            PartyBalanceService partyBalanceService,
+                            @Value("${app.ledger.journal.enabled:false}") boolean enabled,
+                            @Value("${app.ledger.journal.snapshot-interval:100}") long snapshotInterval) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.ledgerSnapshotRepository = ledgerSnapshotRepository;
+        this.partyBalanceService = partyBalanceService;
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts the journal of a party that has none yet with a BALANCE_FORWARD event carrying its current
+     * balance. Must run before the write being recorded touches party_balances.
+     */
+    public void ensureStarted(Party party) {
+        if (!enabled || lastSequence(party.getId()) > 0) {
+            return;
+        }
+        LedgerEvent event = newEvent(party.getId(), party.getUser().getId(), LedgerEvent.EventType.BALANCE_FORWARD);
+        event.setSignedAmount(partyBalanceService.getOutstandingBalance(party));
+        append(event);
+    }
+
+    public void entryRecorded(LedgerEntry entry) {
+        if (!enabled) {
+            return;
+        }
+        LedgerEvent event = newEvent(entry.getParty().getId(), entry.getUser().getId(), LedgerEvent.EventType.ENTRY_RECORDED);
+        event.setEntryId(entry.getId());
+        event.setTransactionType(entry.getTransactionType());
+        event.setAmount(entry.getAmount());
+        event.setSignedAmount(entry.signedAmount());
+        event.setTransactionDate(entry.getTransactionDate());
+        event.setDescription(entry.getDescription());
+        event.setReferenceNumber(entry.getReferenceNumber());
+        event.setPaymentMode(entry.getPaymentMode());
+        appendAndSnapshot(event);
+    }
+
+    /**
+     * Appends the compensating event for an entry that was edited or deleted, given its values before the change.
+     */
+    public void entryReversed(Long partyId, Long userId, Long entryId, LedgerEntry.TransactionType type,
+                              BigDecimal amount, LocalDate transactionDate) {
+        if (!enabled) {
+            return;
+        }
+        LedgerEvent event = newEvent(partyId, userId, LedgerEvent.EventType.ENTRY_REVERSED);
+        event.setEntryId(entryId);
+        event.setTransactionType(type);
+        event.setAmount(amount);
+        event.setSignedAmount(type == LedgerEntry.TransactionType.PAYMENT ? amount : amount.negate());
+        event.setTransactionDate(transactionDate);
+        // Entries written before the journal started have no event to point at; BALANCE_FORWARD covers them
+        ledgerEventRepository.findFirstByEntryIdAndEventTypeOrderBySequenceNumberDesc(entryId, LedgerEvent.EventType.ENTRY_RECORDED)
+                .ifPresent(recorded -> event.setReversesEventId(recorded.getId()));
+        appendAndSnapshot(event);
+    }
+
+    public void partiesMerged(Party target, BigDecimal mergedBalance) {
+        if (!enabled) {
+            return;
+        }
+        LedgerEvent event = newEvent(target.getId(), target.getUser().getId(), LedgerEvent.EventType.PARTY_MERGED);
+        event.setSignedAmount(mergedBalance);
+        appendAndSnapshot(event);
+    }
+
+    /**
+     * Journals entries that were inserted for the party with plain JDBC, given their generated ids.
+     */
+    public void entriesImported(Long partyId, List<Long> entryIds) {
+        if (!enabled || entryIds.isEmpty()) {
+            return;
+        }
+        long previous = lastSequence(partyId);
+        long last = previous;
+        for (int from = 0; from < entryIds.size(); from += IMPORT_CHUNK_SIZE) {
+            List<Long> chunk = entryIds.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, entryIds.size()));
+            last += ledgerEventRepository.appendEntryEvents(partyId, chunk, last);
+        }
+        sequences().put(partyId, last);
+        snapshotIfDue(partyId, previous, last);
+    }
+
+    /**
+     * Balance from the latest snapshot plus the events after it; empty if the party has no journal yet.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BigDecimal> currentBalance(Long partyId) {
+        Optional<Long> lastSequence = ledgerEventRepository.findLastSequenceNumber(partyId);
+        if (lastSequence.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(balanceAt(partyId, lastSequence.get()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LedgerEvent> getEvents(Long partyId, long afterSequence, int size) {
+        return ledgerEventRepository.findByPartyIdAndSequenceNumberGreaterThanOrderBySequenceNumberAsc(
+                partyId, afterSequence, PageRequest.of(0, size));
+    }
+
+    private void appendAndSnapshot(LedgerEvent event) {
+        long previous = lastSequence(event.getPartyId());
+        append(event);
+        snapshotIfDue(event.getPartyId(), previous, event.getSequenceNumber());
+    }
+
+    private void append(LedgerEvent event) {
+        long sequence = lastSequence(event.getPartyId()) + 1;
+        event.setSequenceNumber(sequence);
+        // IDENTITY ids: the row is inserted right away, later queries see it without a flush
+        ledgerEventRepository.save(event);
+        sequences().put(event.getPartyId(), sequence);
+    }
+
+    /**
+     * Snapshots when the appends moved the party past a multiple of the interval; no lookup otherwise.
+     */
+    private void snapshotIfDue(Long partyId, long previousSequence, long lastSequence) {
+        if (previousSequence / snapshotInterval == lastSequence / snapshotInterval) {
+            return;
+        }
+        LedgerSnapshot snapshot = new LedgerSnapshot();
+        snapshot.setPartyId(partyId);
+        snapshot.setSequenceNumber(lastSequence);
+        snapshot.setBalance(balanceAt(partyId, lastSequence));
+        ledgerSnapshotRepository.save(snapshot);
+    }
+
+    private long lastSequence(Long partyId) {
+        return sequences().computeIfAbsent(partyId,
+                id -> ledgerEventRepository.findLastSequenceNumber(id).orElse(0L));
+    }
+
+    /**
+     * Last sequence number per party, bound to the current transaction. The party lock held until commit
+     * means no other writer can append meanwhile, so one lookup per party and transaction is enough.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> sequences() {
+        Map<Long, Long> sequences = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (sequences == null) {
+            Map<Long, Long> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LedgerEventStore.this);
+                }
+            });
+            sequences = bound;
+        }
+        return sequences;
+    }
+
+    private BigDecimal balanceAt(Long partyId, long sequence) {
+        Optional<LedgerSnapshot> snapshot = ledgerSnapshotRepository.findFirstByPartyIdOrderBySequenceNumberDesc(partyId);
+        long fromSequence = snapshot.map(LedgerSnapshot::getSequenceNumber).orElse(0L);
+        BigDecimal base = snapshot.map(LedgerSnapshot::getBalance).orElse(BigDecimal.ZERO);
+        return base.add(ledgerEventRepository.sumSignedAmounts(partyId, fromSequence, sequence));
+    }
+
+    private LedgerEvent newEvent(Long partyId, Long userId, LedgerEvent.EventType type) {
+        LedgerEvent event = new LedgerEvent();
+        event.setPartyId(partyId);
+        event.setUserId(userId);
+        event.setEventType(type);
+        return event;
+    }
+}
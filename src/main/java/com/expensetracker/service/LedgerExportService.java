@@ -0,0 +1,217 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.LedgerEntryDto;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.repository.StreamingQueries;
+import com.expensetracker.util.SecurityUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams ledger exports straight from a forward-only result set to the response body,
+ * so memory use does not depend on the size of the ledger.
+ *
+ * An export reads all of its parties in one read-only REPEATABLE READ transaction, so an export of
+ * every party is a consistent snapshot even though it runs one query per party. Pending deferred
+ * running-balance recomputes are awaited first; one that does not settle in time is exported with
+ * the balances it had.
+ */
+@Service
+public class LedgerExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerExportService.class);
+
+    private static final String EXPORT_SQL = "SELECT le.id, le.party_id, p.name AS party_name, le.transaction_type, le.amount, " +
+            "le.transaction_date, le.description, le.reference_number, le.payment_mode, le.running_balance, le.due_date, " +
+            "le.created_at, le.updated_at " +
+            "FROM ledger_entries le JOIN parties p ON p.id = le.party_id " +
+            "WHERE le.party_id = ? AND le.user_id = ? " +
+            "ORDER BY le.transaction_date, le.id";
+
+    private static final String CSV_HEADER = "id,partyId,partyName,transactionType,amount,transactionDate," +
+            "description,referenceNumber,paymentMode,runningBalance,dueDate";
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final PartyRepository partyRepository;
+    private final RunningBalanceQueue runningBalanceQueue;
+    private final SecurityUtil securityUtil;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate snapshotTransaction;
+
+    @Autowired
+    public LedgerExportService(DataSource dataSource,
+                               PartyRepository partyRepository,
+                               RunningBalanceQueue runningBalanceQueue,
+                               SecurityUtil securityUtil,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(StreamingQueries.FETCH_SIZE);
+        this.partyRepository = partyRepository;
+        this.runningBalanceQueue = runningBalanceQueue;
+        this.securityUtil = securityUtil;
+        this.objectMapper = objectMapper;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public StreamingResponseBody exportParty(Long partyId, Format format, boolean gzip) {
+        User currentUser = securityUtil.getCurrentUser();
+        Party party = partyRepository.findByIdAndUser(partyId, currentUser)
+                .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+        return export(currentUser, List.of(party.getId()), format, gzip);
+    }
+
+    public StreamingResponseBody exportAllParties(Format format, boolean gzip) {
+        User currentUser = securityUtil.getCurrentUser();
+        List<Long> partyIds = partyRepository.findByUser(currentUser).stream()
+                .map(Party::getId)
+                .toList();
+        return export(currentUser, partyIds, format, gzip);
+    }
+
+    // The body is written on an async thread, so the user and party ids are resolved beforehand
+    private StreamingResponseBody export(User user, List<Long> partyIds, Format format, boolean gzip) {
+        Long userId = user.getId();
+        return outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            long rows;
+
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            for (Long partyId : partyIds) {
+                runningBalanceQueue.awaitSettled(partyId);
+            }
+            // One query per party keeps every scan on the (party_id, transaction_date, id) index in ledger order;
+            // the transaction's snapshot, taken at the first query, holds for all of them
+            try {
+                rows = snapshotTransaction.execute(status -> {
+                    long exported = 0;
+                    for (Long partyId : partyIds) {
+                        exported += streamParty(partyId, userId, format, writer);
+                    }
+                    return exported;
+                });
+            } catch (UncheckedIOException e) {
+                // Client went away or the stream failed; stop the export
+                throw e.getCause();
+            }
+
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            logger.debug("Exported {} ledger entries for user {}", rows, userId);
+        };
+    }
+
+    private long streamParty(Long partyId, Long userId, Format format, Writer writer) {
+        long[] count = {0};
+        streamingJdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                LedgerEntryDto dto = mapRow(rs);
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, partyId, userId);
+        return count[0];
+    }
+
+    private LedgerEntryDto mapRow(ResultSet rs) throws SQLException {
+        LedgerEntryDto dto = new LedgerEntryDto();
+        dto.setId(rs.getLong("id"));
+        dto.setPartyId(rs.getLong("party_id"));
+        dto.setPartyName(rs.getString("party_name"));
+        dto.setTransactionType(LedgerEntry.TransactionType.valueOf(rs.getString("transaction_type")));
+        dto.setAmount(rs.getBigDecimal("amount"));
+        dto.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
+        dto.setDescription(rs.getString("description"));
+        dto.setReferenceNumber(rs.getString("reference_number"));
+        dto.setPaymentMode(rs.getString("payment_mode"));
+        dto.setRunningBalance(rs.getBigDecimal("running_balance"));
+        Date dueDate = rs.getDate("due_date");
+        dto.setDueDate(dueDate != null ? dueDate.toLocalDate() : null);
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        dto.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        return dto;
+    }
+
+    private void writeCsvRow(Writer writer, LedgerEntryDto dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getPartyId()));
+        writer.write(',');
+        writer.write(csv(dto.getPartyName()));
+        writer.write(',');
+        writer.write(dto.getTransactionType().name());
+        writer.write(',');
+        writer.write(dto.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(dto.getTransactionDate().toString());
+        writer.write(',');
+        writer.write(csv(dto.getDescription()));
+        writer.write(',');
+        writer.write(csv(dto.getReferenceNumber()));
+        writer.write(',');
+        writer.write(csv(dto.getPaymentMode()));
+        writer.write(',');
+        writer.write(dto.getRunningBalance() != null ? dto.getRunningBalance().toPlainString() : "");
+        writer.write(',');
+        writer.write(dto.getDueDate() != null ? dto.getDueDate().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,352 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.LedgerEntryRequest;
+import com.expensetracker.dto.LedgerImportResult;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.LedgerChangedEvent;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import com.expensetracker.util.JdbcBatchInserts;
+import com.expensetracker.util.SecurityUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Imports ledger entries from a CSV or NDJSON stream. Rows are validated one at a time, inserted in JDBC
+ * batches and running balances are recomputed once per affected party at the end of the import.
+ */
+@Service
+@Transactional
+public class LedgerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerImportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO ledger_entries (party_id, user_id, transaction_type, amount, " +
+            "transaction_date, description, reference_number, payment_mode, due_date, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartyRepository partyRepository;
+    private final PartyBalanceService partyBalanceService;
+    private final PartyLockManager partyLockManager;
+    private final LedgerEventStore ledgerEventStore;
+    private final RunningBalanceQueue runningBalanceQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SecurityUtil securityUtil;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Autowired
+    public LedgerImportService(JdbcTemplate jdbcTemplate,
+                               PartyRepository partyRepository,
+                               PartyBalanceService partyBalanceService,
+                               PartyLockManager partyLockManager,
+                               LedgerEventStore ledgerEventStore,
+                               RunningBalanceQueue runningBalanceQueue,
+                               ApplicationEventPublisher eventPublisher,
+                               SecurityUtil securityUtil,
+                               ObjectMapper objectMapper,
+                               Validator validator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partyRepository = partyRepository;
+        this.partyBalanceService = partyBalanceService;
+        this.partyLockManager = partyLockManager;
+        this.ledgerEventStore = ledgerEventStore;
+        this.runningBalanceQueue = runningBalanceQueue;
+        this.eventPublisher = eventPublisher;
+        this.securityUtil = securityUtil;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public LedgerImportResult importEntries(Reader source, Format format) throws IOException {
+        User currentUser = securityUtil.getCurrentUser();
+        LedgerImportResult result = new LedgerImportResult();
+
+        // Ownership is checked once per party; an empty Optional marks a party that was rejected
+        Map<Long, Optional<Party>> parties = new HashMap<>();
+        Map<Long, PartyTotals> totals = new LinkedHashMap<>();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        BufferedReader reader = new BufferedReader(source);
+        CsvHeader csvHeader = null;
+        String line;
+        long lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvHeader == null) {
+                csvHeader = CsvHeader.parse(line);
+                continue;
+            }
+
+            try {
+                LedgerEntryRequest row = format == Format.CSV ? csvHeader.toRequest(line) : parseJson(line);
+                validate(row);
+
+                Long partyId = row.getPartyIdValue();
+                Party party = parties.computeIfAbsent(partyId,
+                        id -> partyRepository.findByIdAndUser(id, currentUser)).orElse(null);
+                if (party == null) {
+                    throw new ValidationException("Party not found or access denied: " + partyId);
+                }
+
+                LocalDate dueDate = LedgerService.resolveDueDate(row.getTransactionType(), row.getTransactionDate(),
+                        row.getDueDate(), party);
+                batch.add(new Object[]{
+                        partyId,
+                        currentUser.getId(),
+                        row.getTransactionType().name(),
+                        row.getAmount(),
+                        Date.valueOf(row.getTransactionDate()),
+                        row.getDescription(),
+                        row.getReferenceNumber(),
+                        row.getPaymentMode(),
+                        dueDate != null ? Date.valueOf(dueDate) : null,
+                        now,
+                        now
+                });
+                totals.computeIfAbsent(partyId, id -> new PartyTotals(party)).add(row);
+
+                if (batch.size() >= BATCH_SIZE) {
+                    result.setImportedCount(result.getImportedCount() + flush(batch, totals));
+                }
+            } catch (ValidationException e) {
+                result.setFailedCount(result.getFailedCount() + 1);
+                if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    result.getErrors().add(new LedgerImportResult.RowError(lineNumber, e.getMessage()));
+                }
+            }
+        }
+        result.setImportedCount(result.getImportedCount() + flush(batch, totals));
+
+        // New rows only become visible at commit, so the parties are locked (in id order) just for the
+        // balance updates; locking them as they appear in the file could deadlock two imports
+        partyLockManager.lockParties(totals.keySet(), currentUser);
+        for (PartyTotals partyTotals : totals.values()) {
+            ledgerEventStore.ensureStarted(partyTotals.party);
+            partyBalanceService.applyTotals(partyTotals.party.getId(), partyTotals.purchases,
+                    partyTotals.payments, partyTotals.adjustments, partyTotals.count);
+            ledgerEventStore.entriesImported(partyTotals.party.getId(), partyTotals.entryIds);
+            // Imported rows received the highest ids, so everything from their earliest date onwards is affected
+            runningBalanceQueue.recalculateFrom(partyTotals.party, new LedgerPosition(partyTotals.earliestDate, 0L));
+        }
+        result.setAffectedParties(totals.size());
+        if (!totals.isEmpty()) {
+            eventPublisher.publishEvent(new LedgerChangedEvent(currentUser.getId(), Set.copyOf(totals.keySet())));
+        }
+
+        logger.info("Ledger import for user {}: {} imported, {} failed, {} parties",
+                currentUser.getId(), result.getImportedCount(), result.getFailedCount(), totals.size());
+        return result;
+    }
+
+    private int flush(List<Object[]> batch, Map<Long, PartyTotals> totals) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (ledgerEventStore.isEnabled()) {
+            // The journal records exactly the rows this import inserted, by their generated ids
+            List<Long> ids = JdbcBatchInserts.insertReturningIds(jdbcTemplate, INSERT_SQL, batch);
+            for (int i = 0; i < ids.size(); i++) {
+                totals.get((Long) batch.get(i)[0]).entryIds.add(ids.get(i));
+            }
+        } else {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+        int flushed = batch.size();
+        batch.clear();
+        return flushed;
+    }
+
+    private LedgerEntryRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, LedgerEntryRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validate(LedgerEntryRequest row) {
+        if (row.getPartyIdValue() == null) {
+            throw new ValidationException("Party ID is required");
+        }
+        Set<ConstraintViolation<LedgerEntryRequest>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.iterator().next().getMessage());
+        }
+        checkLength(row.getDescription(), 500, "Description");
+        checkLength(row.getReferenceNumber(), 100, "Reference number");
+        checkLength(row.getPaymentMode(), 50, "Payment mode");
+    }
+
+    private void checkLength(String value, int maxLength, String field) {
+        if (value != null && value.length() > maxLength) {
+            throw new ValidationException(field + " must be at most " + maxLength + " characters");
+        }
+    }
+
+    private static class PartyTotals {
+        private final Party party;
+        private BigDecimal purchases = BigDecimal.ZERO;
+        private BigDecimal payments = BigDecimal.ZERO;
+        private BigDecimal adjustments = BigDecimal.ZERO;
+        private long count;
+        private LocalDate earliestDate;
+        private final List<Long> entryIds = new ArrayList<>();
+
+        PartyTotals(Party party) {
+            this.party = party;
+        }
+
+        void add(LedgerEntryRequest row) {
+            switch (row.getTransactionType()) {
+                case PURCHASE -> purchases = purchases.add(row.getAmount());
+                case PAYMENT -> payments = payments.add(row.getAmount());
+                case ADJUSTMENT -> adjustments = adjustments.add(row.getAmount());
+            }
+            count++;
+            if (earliestDate == null || row.getTransactionDate().isBefore(earliestDate)) {
+                earliestDate = row.getTransactionDate();
+            }
+        }
+    }
+
+    /**
+     * Column layout of a CSV import, taken from its header row. Recognised columns are
+     * partyId, transactionType, amount, transactionDate, description, referenceNumber, paymentMode and dueDate.
+     */
+    private static class CsvHeader {
+        private final Map<String, Integer> columns;
+
+        private CsvHeader(Map<String, Integer> columns) {
+            this.columns = columns;
+        }
+
+        static CsvHeader parse(String line) {
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = splitCsvLine(line);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("partyid", "transactiontype", "amount", "transactiondate")) {
+                if (!columns.containsKey(required)) {
+                    throw new ValidationException("CSV header is missing column: " + required);
+                }
+            }
+            return new CsvHeader(columns);
+        }
+
+        LedgerEntryRequest toRequest(String line) {
+            List<String> values = splitCsvLine(line);
+            LedgerEntryRequest request = new LedgerEntryRequest();
+            try {
+                String partyId = value(values, "partyid");
+                request.setPartyId(partyId != null ? Long.valueOf(partyId) : null);
+                String type = value(values, "transactiontype");
+                request.setTransactionType(type != null ? LedgerEntry.TransactionType.valueOf(type.toUpperCase(Locale.ROOT)) : null);
+                String amount = value(values, "amount");
+                request.setAmount(amount != null ? new BigDecimal(amount) : null);
+                String date = value(values, "transactiondate");
+                request.setTransactionDate(date != null ? LocalDate.parse(date) : null);
+                String dueDate = value(values, "duedate");
+                request.setDueDate(dueDate != null ? LocalDate.parse(dueDate) : null);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid number: " + e.getMessage());
+            } catch (DateTimeParseException e) {
+                throw new ValidationException("Invalid date, expected yyyy-MM-dd: " + e.getParsedString());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid transaction type, expected PURCHASE, PAYMENT or ADJUSTMENT");
+            }
+            request.setDescription(value(values, "description"));
+            request.setReferenceNumber(value(values, "referencenumber"));
+            request.setPaymentMode(value(values, "paymentmode"));
+            return request;
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        /**
+         * Splits one CSV record, honouring double-quoted fields and "" escapes.
+         */
+        static List<String> splitCsvLine(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            fields.add(current.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.StreamingQueries;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies the stored running_balance of every ledger entry against a fresh recomputation. Parties are
+ * split into batches that run in parallel on a bounded fork/join pool. Each ledger is read as a forward-only
+ * stream, so memory use does not depend on ledger size. Drifted parties can optionally be repaired by
+ * rewriting their ledger from the first divergent entry; a repair run also derives the monthly checkpoints of
+ * ledgers written before checkpoints existed.
+ *
+ * Findings are best effort while writes continue: an entry written during the scan may be reported,
+ * but repairs take the party lock and are always safe to run.
+ */
+@Service
+public class LedgerIntegrityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerIntegrityService.class);
+
+    private static final int BATCH_SIZE = 32;
+    private static final int MAX_REPORTED_FINDINGS = 1000;
+
+    private static final String PARTIES_SQL = "SELECT id, opening_balance FROM parties ORDER BY id";
+
+    private static final String ENTRIES_SQL = "SELECT id, transaction_date, transaction_type, amount, running_balance " +
+            "FROM ledger_entries WHERE party_id = ? ORDER BY transaction_date, id";
+
+    public enum Status {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final RunningBalanceService runningBalanceService;
+    private final RunningBalanceQueue runningBalanceQueue;
+    private final PartyLockManager partyLockManager;
+    private final TransactionTemplate repairTransaction;
+    private final int parallelism;
+
+    private volatile Run currentRun;
+
+    @Autowired
+    public LedgerIntegrityService(JdbcTemplate jdbcTemplate,
+                                  DataSource dataSource,
+                                  RunningBalanceService runningBalanceService,
+                                  RunningBalanceQueue runningBalanceQueue,
+                                  PartyLockManager partyLockManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.ledger.integrity-parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(StreamingQueries.FETCH_SIZE);
+        this.runningBalanceService = runningBalanceService;
+        this.runningBalanceQueue = runningBalanceQueue;
+        this.partyLockManager = partyLockManager;
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.repairTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.repairTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Starts a verification run in the background.
+     *
+     * @return false if a run is already in progress
+     */
+    public synchronized boolean start(boolean repair) {
+        if (currentRun != null && currentRun.status == Status.RUNNING) {
+            return false;
+        }
+        Run run = new Run(repair);
+        currentRun = run;
+
+        Thread runner = new Thread(() -> execute(run), "ledger-integrity");
+        runner.setDaemon(true);
+        runner.start();
+        return true;
+    }
+
+    public IntegrityReport getReport() {
+        Run run = currentRun;
+        if (run == null) {
+            return new IntegrityReport(Status.IDLE, false, null, null, 0, 0, 0, 0, 0, 0, 0.0, List.of());
+        }
+        Instant end = run.finishedAt != null ? run.finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(run.startedAt, end).toMillis(), 1) / 1000.0;
+        List<Drift> findings;
+        synchronized (run.findings) {
+            findings = new ArrayList<>(run.findings);
+        }
+        return new IntegrityReport(run.status, run.repair, run.startedAt, run.finishedAt,
+                run.partiesTotal, run.partiesChecked.get(), run.entriesChecked.get(),
+                run.driftedParties.get(), run.repairedParties.get(), run.backfilledParties.get(),
+                run.entriesChecked.get() / seconds, findings);
+    }
+
+    private void execute(Run run) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<PartyRow> parties = jdbcTemplate.query(PARTIES_SQL, (rs, rowNum) ->
+                    new PartyRow(rs.getLong("id"), rs.getBigDecimal("opening_balance")));
+            run.partiesTotal = parties.size();
+            pool.invoke(new VerifyBatch(run, parties));
+            run.status = Status.COMPLETED;
+            logger.info("Ledger integrity run finished: {} parties, {} entries, {} drifted, {} repaired",
+                    run.partiesChecked.get(), run.entriesChecked.get(), run.driftedParties.get(), run.repairedParties.get());
+        } catch (RuntimeException e) {
+            run.status = Status.FAILED;
+            logger.error("Ledger integrity run failed", e);
+        } finally {
+            run.finishedAt = Instant.now();
+            pool.shutdown();
+        }
+    }
+
+    private void verifyParty(Run run, PartyRow party) {
+        // Deferred recomputes still in the queue would show up as drift
+        if (runningBalanceQueue.isPending(party.id())) {
+            run.partiesChecked.incrementAndGet();
+            return;
+        }
+
+        BigDecimal[] balance = {party.openingBalance() != null ? party.openingBalance() : BigDecimal.ZERO};
+        long[] entries = {0};
+        Drift[] drift = {null};
+
+        streamingJdbcTemplate.query(ENTRIES_SQL, rs -> {
+            BigDecimal amount = rs.getBigDecimal("amount");
+            balance[0] = "PAYMENT".equals(rs.getString("transaction_type"))
+                    ? balance[0].subtract(amount)
+                    : balance[0].add(amount);
+            entries[0]++;
+
+            if (drift[0] == null) {
+                BigDecimal stored = rs.getBigDecimal("running_balance");
+                if (stored == null || stored.compareTo(balance[0]) != 0) {
+                    drift[0] = new Drift(party.id(), rs.getLong("id"), rs.getDate("transaction_date").toLocalDate(),
+                            balance[0], stored, false);
+                }
+            }
+        }, party.id());
+
+        run.entriesChecked.addAndGet(entries[0]);
+        run.partiesChecked.incrementAndGet();
+        if (drift[0] != null) {
+            run.driftedParties.incrementAndGet();
+            Drift finding = drift[0];
+            if (run.repair && repair(finding)) {
+                finding.setRepaired(true);
+                run.repairedParties.incrementAndGet();
+            }
+            synchronized (run.findings) {
+                if (run.findings.size() < MAX_REPORTED_FINDINGS) {
+                    run.findings.add(finding);
+                }
+            }
+        }
+        if (run.repair && entries[0] > 0 && backfillCheckpoints(party.id())) {
+            run.backfilledParties.incrementAndGet();
+        }
+    }
+
+    private boolean backfillCheckpoints(Long partyId) {
+        try {
+            return Boolean.TRUE.equals(repairTransaction.execute(status -> {
+                partyLockManager.lockParties(List.of(partyId), null);
+                return runningBalanceService.backfillCheckpoints(partyId);
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Could not back-fill checkpoints of party {}", partyId, e);
+            return false;
+        }
+    }
+
+    private boolean repair(Drift drift) {
+        try {
+            repairTransaction.executeWithoutResult(status -> {
+                Party party = partyLockManager.lockParties(List.of(drift.getPartyId()), null).get(0);
+                // Everything before the first divergent entry was verified, so only the suffix is rewritten
+                runningBalanceService.recalculateFrom(party, new LedgerPosition(drift.getTransactionDate(), drift.getEntryId()));
+            });
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Could not repair running balances of party {}", drift.getPartyId(), e);
+            return false;
+        }
+    }
+
+    private class VerifyBatch extends RecursiveAction {
+        private final Run run;
+        private final List<PartyRow> parties;
+
+        VerifyBatch(Run run, List<PartyRow> parties) {
+            this.run = run;
+            this.parties = parties;
+        }
+
+        @Override
+        protected void compute() {
+            if (parties.size() <= BATCH_SIZE) {
+                for (PartyRow party : parties) {
+                    verifyParty(run, party);
+                }
+                return;
+            }
+            int middle = parties.size() / 2;
+            invokeAll(new VerifyBatch(run, parties.subList(0, middle)),
+                    new VerifyBatch(run, parties.subList(middle, parties.size())));
+        }
+    }
+
+    private record PartyRow(Long id, BigDecimal openingBalance) {
+    }
+
+    private static class Run {
+        private final boolean repair;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile int partiesTotal;
+        private final AtomicLong partiesChecked = new AtomicLong();
+        private final AtomicLong entriesChecked = new AtomicLong();
+        private final AtomicLong driftedParties = new AtomicLong();
+        private final AtomicLong repairedParties = new AtomicLong();
+        private final AtomicLong backfilledParties = new AtomicLong();
+        private final List<Drift> findings = new ArrayList<>();
+
+        Run(boolean repair) {
+            this.repair = repair;
+        }
+    }
+
+    /**
+     * A party whose stored running balances diverge from the recomputed ones, starting at the given entry.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Drift {
+        private Long partyId;
+        private Long entryId;
+        private LocalDate transactionDate;
+        private BigDecimal expectedBalance;
+        private BigDecimal storedBalance;
+        private boolean repaired;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IntegrityReport {
+        private Status status;
+        private boolean repair;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private int partiesTotal;
+        private long partiesChecked;
+        private long entriesChecked;
+        private long driftedParties;
+        private long repairedParties;
+        // Parties whose missing monthly checkpoints were derived by a repair run
+        private long backfilledParties;
+        private double entriesPerSecond;
+        private List<Drift> findings;
+    }
+}
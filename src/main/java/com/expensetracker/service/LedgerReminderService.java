@@ -0,0 +1,226 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.service.ReminderNotifier.DueReminder;
+import com.expensetracker.util.HierarchicalTimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends a reminder for each unpaid purchase shortly before its due date. Upcoming due dates are loaded
+ * periodically through the due_date index (a window from catch-up-days ago to horizon-days ahead) and
+ * armed on an in-memory timer wheel, so each minute's tick only handles the reminders that are actually
+ * due instead of scanning the ledger. A reminder is claimed by setting reminder_sent_at before it is
+ * delivered, so it goes out once even with several nodes running.
+ */
+@Service
+public class LedgerReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReminderService.class);
+
+    private static final long TICK_MILLIS = 60_000L;
+    private static final LocalTime SEND_TIME = LocalTime.of(9, 0);
+
+    private static final String UPCOMING_SQL = "SELECT id, due_date FROM ledger_entries " +
+            "WHERE due_date BETWEEN ? AND ? AND reminder_sent_at IS NULL AND transaction_type = 'PURCHASE'";
+
+    private static final String ENTRY_SQL = "SELECT le.id, le.party_id, p.name AS party_name, le.user_id, le.amount, " +
+            "le.due_date, le.reminder_sent_at, le.transaction_type " +
+            "FROM ledger_entries le JOIN parties p ON p.id = le.party_id WHERE le.id = ?";
+
+    private static final String CLAIM_SQL = "UPDATE ledger_entries SET reminder_sent_at = ? " +
+            "WHERE id = ? AND due_date = ? AND reminder_sent_at IS NULL";
+
+    private static final String RELEASE_SQL = "UPDATE ledger_entries SET reminder_sent_at = NULL " +
+            "WHERE id = ? AND reminder_sent_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartyRepository partyRepository;
+    private final PartyBalanceService partyBalanceService;
+    private final ReminderNotifier notifier;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int leadDays;
+    private final int horizonDays;
+    private final int catchUpDays;
+    private final long refreshMillis;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    private final HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    // Entry id -> due date it is armed for; a changed due date re-arms the entry on the next refresh
+    private final Map<Long, LocalDate> armed = new ConcurrentHashMap<>();
+    private long lastRefreshMillis;
+
+    @Autowired
+    public LedgerReminderService(JdbcTemplate jdbcTemplate,
+                                 PartyRepository partyRepository,
+                                 PartyBalanceService partyBalanceService,
+                                 ReminderNotifier notifier,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.ledger.reminders.enabled:false}") boolean enabled,
+                                 @Value("${app.ledger.reminders.lead-days:3}") int leadDays,
+                                 @Value("${app.ledger.reminders.horizon-days:7}") int horizonDays,
+                                 @Value("${app.ledger.reminders.catch-up-days:30}") int catchUpDays,
+                                 @Value("${app.ledger.reminders.refresh-minutes:15}") long refreshMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partyRepository = partyRepository;
+        this.partyBalanceService = partyBalanceService;
+        this.notifier = notifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.enabled = enabled;
+        this.leadDays = leadDays;
+        // Entries must be loaded at least lead-days ahead, or their reminders would only fire late
+        this.horizonDays = Math.max(horizonDays, leadDays + 1);
+        this.catchUpDays = catchUpDays;
+        this.refreshMillis = refreshMinutes * 60_000L;
+
+        this.sentCounter = Counter.builder("ledger.reminders.sent")
+                .description("Payment-due reminders delivered")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("ledger.reminders.failed")
+                .description("Payment-due reminders that could not be delivered")
+                .register(meterRegistry);
+        Gauge.builder("ledger.reminders.armed", armed, Map::size)
+                .description("Reminders waiting on the timer wheel")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelay = TICK_MILLIS, initialDelay = TICK_MILLIS)
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Long> due;
+        synchronized (wheel) {
+            if (now - lastRefreshMillis >= refreshMillis) {
+                refresh();
+                lastRefreshMillis = now;
+            }
+            due = wheel.advance(now);
+        }
+        for (Long entryId : due) {
+            LocalDate dueDate = armed.get(entryId);
+            // A timer left over from an earlier due date; the entry's current timer fires later
+            if (dueDate == null || sendTime(dueDate) > now) {
+                continue;
+            }
+            if (armed.remove(entryId, dueDate)) {
+                fire(entryId, dueDate);
+            }
+        }
+    }
+
+    private void refresh() {
+        LocalDate today = LocalDate.now();
+        Set<Long> seen = new HashSet<>();
+        jdbcTemplate.query(UPCOMING_SQL, rs -> {
+            long entryId = rs.getLong("id");
+            LocalDate dueDate = rs.getDate("due_date").toLocalDate();
+            seen.add(entryId);
+            if (!dueDate.equals(armed.put(entryId, dueDate))) {
+                // Past send times (catch-up after downtime) expire on the next tick
+                wheel.schedule(entryId, sendTime(dueDate));
+            }
+        }, Date.valueOf(today.minusDays(catchUpDays)), Date.valueOf(today.plusDays(horizonDays)));
+
+        // Paid, deleted or re-dated entries drop out; their wheel timers are ignored when they expire
+        armed.keySet().retainAll(seen);
+        logger.debug("Reminder refresh armed {} entries, {} timers pending", armed.size(), wheel.size());
+    }
+
+    private long sendTime(LocalDate dueDate) {
+        return dueDate.minusDays(leadDays).atTime(SEND_TIME).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void fire(Long entryId, LocalDate armedDueDate) {
+        DueReminder reminder;
+        // Whole seconds, so the release below matches the stored value exactly
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        try {
+            reminder = transactionTemplate.execute(status -> claim(entryId, armedDueDate, claimedAt));
+        } catch (RuntimeException e) {
+            logger.error("Could not prepare reminder for ledger entry {}", entryId, e);
+            return;
+        }
+        if (reminder == null) {
+            return;
+        }
+
+        try {
+            notifier.notify(reminder);
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            logger.error("Reminder for ledger entry {} could not be delivered, will retry", entryId, e);
+            // Un-claim so the next refresh arms it again
+            jdbcTemplate.update(RELEASE_SQL, entryId, Timestamp.valueOf(claimedAt));
+        }
+    }
+
+    // Re-validates the entry against the database before claiming it; anything changed since it was armed is skipped
+    private DueReminder claim(Long entryId, LocalDate armedDueDate, LocalDateTime claimedAt) {
+        List<DueReminder> rows = jdbcTemplate.query(ENTRY_SQL, (rs, rowNum) -> {
+            Date dueDate = rs.getDate("due_date");
+            if (rs.getTimestamp("reminder_sent_at") != null
+                    || dueDate == null
+                    || !armedDueDate.equals(dueDate.toLocalDate())
+                    || !"PURCHASE".equals(rs.getString("transaction_type"))) {
+                return null;
+            }
+            return new DueReminder(rs.getLong("id"), rs.getLong("party_id"), rs.getString("party_name"),
+                    rs.getLong("user_id"), rs.getBigDecimal("amount"), dueDate.toLocalDate(), null);
+        }, entryId);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return null;
+        }
+        DueReminder candidate = rows.get(0);
+
+        // Nothing to remind about once the party has settled its account
+        Party party = partyRepository.findById(candidate.partyId()).orElse(null);
+        if (party == null) {
+            return null;
+        }
+        BigDecimal outstanding = partyBalanceService.getOutstandingBalance(party);
+        if (outstanding.signum() <= 0) {
+            return null;
+        }
+
+        int claimed = jdbcTemplate.update(CLAIM_SQL, Timestamp.valueOf(claimedAt), entryId, Date.valueOf(armedDueDate));
+        if (claimed == 0) {
+            // Another node got there first
+            return null;
+        }
+        return new DueReminder(candidate.entryId(), candidate.partyId(), candidate.partyName(), candidate.userId(),
+                candidate.amount(), candidate.dueDate(), outstanding);
+    }
+}
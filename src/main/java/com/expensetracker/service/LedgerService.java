@@ -1,20 +1,41 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.CursorPageResponse;
 import com.expensetracker.dto.LedgerEntryDto;
+import com.expensetracker.dto.LedgerStatement;
 import com.expensetracker.dto.LedgerSummary;
+import com.expensetracker.entity.InterestAccrual;
 import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.LedgerEvent;
 import com.expensetracker.entity.Party;
 import com.expensetracker.entity.User;
+import com.expensetracker.event.LedgerChangedEvent;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.InterestAccrualRepository;
 import com.expensetracker.repository.LedgerEntryRepository;
+import com.expensetracker.repository.LedgerEntryRepository.LedgerTotals;
+import com.expensetracker.repository.PartyBalanceRepository;
 import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import com.expensetracker.util.CursorCodec;
 import com.expensetracker.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -22,25 +43,59 @@ import java.util.stream.Collectors;
 @Transactional
 public class LedgerService {
 
+    private static final String CURSOR_NEXT = "n";
+    private static final String CURSOR_PREVIOUS = "p";
+
     private final LedgerEntryRepository ledgerEntryRepository;
     private final PartyRepository partyRepository;
+    private final RunningBalanceService runningBalanceService;
+    private final RunningBalanceQueue runningBalanceQueue;
+    private final PartyBalanceService partyBalanceService;
+    private final PartyLockManager partyLockManager;
+    private final LedgerEventStore ledgerEventStore;
+    private final InterestAccrualRepository interestAccrualRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final SecurityUtil securityUtil;
+    private final TransactionTemplate readTransaction;
 
     @Autowired
     public LedgerService(LedgerEntryRepository ledgerEntryRepository, 
                         PartyRepository partyRepository, 
-                        SecurityUtil securityUtil) {
+                        RunningBalanceService runningBalanceService,
+                        RunningBalanceQueue runningBalanceQueue,
+                        PartyBalanceService partyBalanceService,
+                        PartyLockManager partyLockManager,
+                        LedgerEventStore ledgerEventStore,
+                        InterestAccrualRepository interestAccrualRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        SecurityUtil securityUtil,
+                        PlatformTransactionManager transactionManager) {
         this.ledgerEntryRepository = ledgerEntryRepository;
         this.partyRepository = partyRepository;
+        this.runningBalanceService = runningBalanceService;
+        this.runningBalanceQueue = runningBalanceQueue;
+        this.partyBalanceService = partyBalanceService;
+        this.partyLockManager = partyLockManager;
+        this.ledgerEventStore = ledgerEventStore;
+        this.interestAccrualRepository = interestAccrualRepository;
+        this.eventPublisher = eventPublisher;
         this.securityUtil = securityUtil;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.readTransaction.setReadOnly(true);
     }
 
+    /**
+     * Ledger writes run under READ COMMITTED: every read after the party lock is granted sees the
+     * writes of the transaction that held it before, instead of a snapshot taken before the wait.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public LedgerEntry createLedgerEntry(LedgerEntry ledgerEntry) {
         User currentUser = securityUtil.getCurrentUser();
         
-        // Verify party belongs to current user
-        Party party = partyRepository.findByIdAndUser(ledgerEntry.getParty().getId(), currentUser)
-                .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+        // Verify party belongs to current user and serialize writes to its ledger
+        Party party = partyLockManager.lockParty(ledgerEntry.getParty().getId(), currentUser);
+        ledgerEventStore.ensureStarted(party);
         
         ledgerEntry.setParty(party);
         ledgerEntry.setUser(currentUser);
@@ -48,26 +103,44 @@ public class LedgerService {
         if (ledgerEntry.getTransactionDate() == null) {
             ledgerEntry.setTransactionDate(LocalDate.now());
         }
+        ledgerEntry.setDueDate(resolveDueDate(ledgerEntry, party));
         
         // Save entry first to get ID for ordering
         LedgerEntry savedEntry = ledgerEntryRepository.save(ledgerEntry);
+        partyBalanceService.entryAdded(savedEntry);
+        ledgerEventStore.entryRecorded(savedEntry);
         
-        // Recalculate running balances for all entries of this party
-        recalculateRunningBalances(party);
+        // Only entries from the new entry's position onwards are affected
+        runningBalanceQueue.recalculateFrom(party, LedgerPosition.of(savedEntry));
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), party.getId()));
         
         return ledgerEntryRepository.findById(savedEntry.getId()).orElse(savedEntry);
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public LedgerEntry updateLedgerEntry(Long id, LedgerEntry entryDetails) {
         User currentUser = securityUtil.getCurrentUser();
-        LedgerEntry entry = ledgerEntryRepository.findByIdAndUser(id, currentUser)
+        Long currentPartyId = ledgerEntryRepository.findPartyIdByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new RuntimeException("Ledger entry not found with id: " + id));
+        Long targetPartyId = entryDetails.getParty() != null ? entryDetails.getParty().getId() : currentPartyId;
 
-        // Verify party belongs to current user if changed
-        if (entryDetails.getParty() != null && !entry.getParty().getId().equals(entryDetails.getParty().getId())) {
-            Party party = partyRepository.findByIdAndUser(entryDetails.getParty().getId(), currentUser)
-                    .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
-            entry.setParty(party);
+        // Both ledgers are locked before the entry is read, so its previous values are the committed ones
+        List<Party> lockedParties = partyLockManager.lockParties(List.of(currentPartyId, targetPartyId), currentUser);
+        LedgerEntry entry = lockedEntry(id, currentUser, currentPartyId);
+        lockedParties.forEach(ledgerEventStore::ensureStarted);
+
+        Party previousParty = entry.getParty();
+        LedgerPosition previousPosition = LedgerPosition.of(entry);
+        LedgerEntry.TransactionType previousType = entry.getTransactionType();
+        BigDecimal previousAmount = entry.getAmount();
+        LocalDate previousDate = entry.getTransactionDate();
+
+        // Party ownership was verified when it was locked
+        if (!currentPartyId.equals(targetPartyId)) {
+            lockedParties.stream()
+                    .filter(party -> party.getId().equals(targetPartyId))
+                    .findFirst()
+                    .ifPresent(entry::setParty);
         }
 
         entry.setTransactionType(entryDetails.getTransactionType());
@@ -76,71 +149,262 @@ public class LedgerService {
         entry.setDescription(entryDetails.getDescription());
         entry.setReferenceNumber(entryDetails.getReferenceNumber());
         entry.setPaymentMode(entryDetails.getPaymentMode());
+        LocalDate dueDate = resolveDueDate(entryDetails.getTransactionType(), entryDetails.getTransactionDate(),
+                entryDetails.getDueDate(), entry.getParty());
+        if (!Objects.equals(dueDate, entry.getDueDate())) {
+            entry.setDueDate(dueDate);
+            // A moved due date deserves a fresh reminder
+            entry.setReminderSentAt(null);
+        }
 
         LedgerEntry savedEntry = ledgerEntryRepository.save(entry);
+        LedgerPosition newPosition = LedgerPosition.of(savedEntry);
+        partyBalanceService.entryChanged(previousParty.getId(), previousType, previousAmount, savedEntry);
+        // Journal: compensate the previous version, then record the new one
+        ledgerEventStore.entryReversed(previousParty.getId(), currentUser.getId(), id, previousType, previousAmount, previousDate);
+        ledgerEventStore.entryRecorded(savedEntry);
         
-        // Recalculate running balances
-        recalculateRunningBalances(entry.getParty());
+        // Recalculate running balances from the earliest position touched by the edit
+        if (previousParty.getId().equals(savedEntry.getParty().getId())) {
+            runningBalanceQueue.recalculateFrom(savedEntry.getParty(),
+                    RunningBalanceService.earliest(previousPosition, newPosition));
+        } else {
+            runningBalanceQueue.recalculateFrom(previousParty, previousPosition);
+            runningBalanceQueue.recalculateFrom(savedEntry.getParty(), newPosition);
+        }
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), currentPartyId, targetPartyId));
         
-        return savedEntry;
+        return ledgerEntryRepository.findById(savedEntry.getId()).orElse(savedEntry);
     }
 
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void deleteLedgerEntry(Long id) {
         User currentUser = securityUtil.getCurrentUser();
-        LedgerEntry entry = ledgerEntryRepository.findByIdAndUser(id, currentUser)
+        Long partyId = ledgerEntryRepository.findPartyIdByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new RuntimeException("Ledger entry not found with id: " + id));
+        ledgerEventStore.ensureStarted(partyLockManager.lockParty(partyId, currentUser));
+        LedgerEntry entry = lockedEntry(id, currentUser, partyId);
         
         Party party = entry.getParty();
+        LedgerPosition position = LedgerPosition.of(entry);
         ledgerEntryRepository.delete(entry);
+        partyBalanceService.entryRemoved(entry);
+        ledgerEventStore.entryReversed(partyId, currentUser.getId(), id, entry.getTransactionType(),
+                entry.getAmount(), entry.getTransactionDate());
         
-        // Recalculate running balances after deletion
-        recalculateRunningBalances(party);
+        // Recalculate running balances of the entries following the deleted one
+        runningBalanceQueue.recalculateFrom(party, position);
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), partyId));
+    }
+
+    private LocalDate resolveDueDate(LedgerEntry entry, Party party) {
+        return resolveDueDate(entry.getTransactionType(), entry.getTransactionDate(), entry.getDueDate(), party);
+    }
+
+    /**
+     * Due date of a purchase: the explicit one, else transaction date plus the party's credit days.
+     * Other transaction types are never due.
+     */
+    static LocalDate resolveDueDate(LedgerEntry.TransactionType type, LocalDate transactionDate,
+                                    LocalDate dueDate, Party party) {
+        if (type != LedgerEntry.TransactionType.PURCHASE) {
+            return null;
+        }
+        if (dueDate != null) {
+            return dueDate;
+        }
+        if (party.getCreditDays() != null && transactionDate != null) {
+            return transactionDate.plusDays(party.getCreditDays());
+        }
+        return null;
+    }
+
+    /**
+     * Loads an entry once its party is locked. If a concurrent edit moved it to another party in the
+     * meantime, the lock held is the wrong one and the caller has to retry.
+     */
+    private LedgerEntry lockedEntry(Long id, User user, Long lockedPartyId) {
+        LedgerEntry entry = ledgerEntryRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new RuntimeException("Ledger entry not found with id: " + id));
+        if (!entry.getParty().getId().equals(lockedPartyId)) {
+            throw new RuntimeException("Ledger entry was modified concurrently, please retry");
+        }
+        return entry;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<LedgerEntry> getLedgerEntriesByParty(Long partyId) {
+        // In deferred mode, give a queued recompute for this party a moment to finish
+        runningBalanceQueue.awaitSettled(partyId);
+
+        return readTransaction.execute(status -> {
+            User currentUser = securityUtil.getCurrentUser();
+            Party party = partyRepository.findByIdAndUser(partyId, currentUser)
+                    .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+            return ledgerEntryRepository.findByPartyOrderByTransactionDateAscIdAsc(party);
+        });
+    }
+
+    /**
+     * Keyset pagination over a party ledger in (transactionDate, id) order. Each page is an index range
+     * read on (party_id, transaction_date, id), so deep pages cost the same as the first one.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPageResponse<LedgerEntryDto> getLedgerEntriesPage(Long partyId, String cursor, int size) {
+        // In deferred mode, give a queued recompute for this party a moment to finish
+        runningBalanceQueue.awaitSettled(partyId);
+
+        return readTransaction.execute(status -> entriesPage(partyId, cursor, size));
+    }
+
+    private CursorPageResponse<LedgerEntryDto> entriesPage(Long partyId, String cursor, int size) {
         User currentUser = securityUtil.getCurrentUser();
         Party party = partyRepository.findByIdAndUser(partyId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
-        
-        return ledgerEntryRepository.findByPartyOrderByTransactionDateAscIdAsc(party);
+
+        // One extra row tells whether another page exists in the direction of travel
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<LedgerEntry> rows;
+        boolean hasNext;
+        boolean hasPrevious;
+
+        if (cursor == null || cursor.isBlank()) {
+            rows = ledgerEntryRepository.findFirstEntries(party, limit);
+            hasNext = rows.size() > size;
+            hasPrevious = false;
+            rows = rows.subList(0, Math.min(size, rows.size()));
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 3);
+            LocalDate transactionDate;
+            Long id;
+            try {
+                transactionDate = LocalDate.parse(parts[1]);
+                id = Long.valueOf(parts[2]);
+            } catch (RuntimeException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+
+            if (CURSOR_NEXT.equals(parts[0])) {
+                rows = ledgerEntryRepository.findFollowingEntries(party, transactionDate, id, limit);
+                hasNext = rows.size() > size;
+                hasPrevious = true;
+                rows = rows.subList(0, Math.min(size, rows.size()));
+            } else if (CURSOR_PREVIOUS.equals(parts[0])) {
+                rows = new ArrayList<>(ledgerEntryRepository.findPrecedingEntries(party, transactionDate, id, limit));
+                hasPrevious = rows.size() > size;
+                hasNext = true;
+                rows = rows.subList(0, Math.min(size, rows.size()));
+                Collections.reverse(rows);
+            } else {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
+
+        List<LedgerEntryDto> content = rows.stream()
+                .map(LedgerEntryDto::fromEntity)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!content.isEmpty()) {
+            LedgerEntryDto first = content.get(0);
+            LedgerEntryDto last = content.get(content.size() - 1);
+            nextCursor = hasNext ? CursorCodec.encode(CURSOR_NEXT, last.getTransactionDate(), last.getId()) : null;
+            prevCursor = hasPrevious ? CursorCodec.encode(CURSOR_PREVIOUS, first.getTransactionDate(), first.getId()) : null;
+        }
+
+        return new CursorPageResponse<>(content, size, nextCursor, prevCursor, nextCursor != null, prevCursor != null);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<LedgerEntry> getLedgerEntriesByPartyAndDateRange(Long partyId, LocalDate startDate, LocalDate endDate) {
+        // In deferred mode, give a queued recompute for this party a moment to finish
+        runningBalanceQueue.awaitSettled(partyId);
+
+        return readTransaction.execute(status -> {
+            User currentUser = securityUtil.getCurrentUser();
+            Party party = partyRepository.findByIdAndUser(partyId, currentUser)
+                    .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+            return ledgerEntryRepository.findByPartyAndTransactionDateBetween(party, startDate, endDate);
+        });
+    }
+
+    /**
+     * Builds a statement for a date range: opening balance at startDate, the entries in the range and the
+     * closing balance at endDate. Only one checkpoint and the entries since the start of startDate's month are read.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LedgerStatement getPartyStatement(Long partyId, LocalDate startDate, LocalDate endDate) {
+        boolean balanceStale = runningBalanceQueue.awaitSettled(partyId);
+        return readTransaction.execute(status -> statement(partyId, startDate, endDate, balanceStale));
+    }
+
+    private LedgerStatement statement(Long partyId, LocalDate startDate, LocalDate endDate, boolean balanceStale) {
         User currentUser = securityUtil.getCurrentUser();
         Party party = partyRepository.findByIdAndUser(partyId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
-        
-        return ledgerEntryRepository.findByPartyAndTransactionDateBetween(party, startDate, endDate);
+
+        LocalDate monthStart = startDate.withDayOfMonth(1);
+        BigDecimal balance = runningBalanceService.balanceBeforeMonth(party, monthStart);
+        BigDecimal openingBalance = null;
+        List<LedgerEntryDto> transactions = new ArrayList<>();
+
+        for (LedgerEntry entry : ledgerEntryRepository.findByPartyAndTransactionDateBetween(party, monthStart, endDate)) {
+            if (!entry.getTransactionDate().isBefore(startDate)) {
+                if (openingBalance == null) {
+                    openingBalance = balance;
+                }
+                transactions.add(LedgerEntryDto.fromEntity(entry));
+            }
+            balance = balance.add(entry.signedAmount());
+        }
+
+        return new LedgerStatement(
+                party.getId(),
+                party.getName(),
+                startDate,
+                endDate,
+                openingBalance != null ? openingBalance : balance,
+                balance,
+                balanceStale,
+                transactions
+        );
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LedgerSummary getPartyLedgerSummary(Long partyId) {
+        boolean balanceStale = runningBalanceQueue.awaitSettled(partyId);
+        return readTransaction.execute(status -> summary(partyId, balanceStale));
+    }
+
+    private LedgerSummary summary(Long partyId, boolean balanceStale) {
         User currentUser = securityUtil.getCurrentUser();
         Party party = partyRepository.findByIdAndUser(partyId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
-        
-        List<LedgerEntry> entries = ledgerEntryRepository.findByPartyOrderByTransactionDateAscIdAsc(party);
-        
-        BigDecimal totalPurchases = ledgerEntryRepository.getTotalPurchases(party);
-        BigDecimal totalPayments = ledgerEntryRepository.getTotalPayments(party);
+
+
+        // One aggregate pass for the totals and a DTO projection for the rows, no entity hydration
+        LedgerTotals totals = ledgerEntryRepository.summarizeByParty(party);
+        List<LedgerEntryDto> transactionDtos = ledgerEntryRepository.findDtosByParty(party);
         BigDecimal openingBalance = party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO;
         
-        // Outstanding Balance = Opening Balance + Total Purchases - Total Payments
+        // Outstanding Balance = Opening Balance + Total Purchases + Total Adjustments - Total Payments
         BigDecimal outstandingBalance = openingBalance
-                .add(totalPurchases != null ? totalPurchases : BigDecimal.ZERO)
-                .subtract(totalPayments != null ? totalPayments : BigDecimal.ZERO);
-        
-        List<LedgerEntryDto> transactionDtos = entries.stream()
-                .map(LedgerEntryDto::fromEntity)
-                .collect(Collectors.toList());
+                .add(totals.getTotalPurchases())
+                .add(totals.getTotalAdjustments())
+                .subtract(totals.getTotalPayments());
         
         return new LedgerSummary(
                 party.getId(),
                 party.getName(),
                 openingBalance,
-                totalPurchases != null ? totalPurchases : BigDecimal.ZERO,
-                totalPayments != null ? totalPayments : BigDecimal.ZERO,
+                totals.getTotalPurchases(),
+                totals.getTotalPayments(),
+                totals.getTotalAdjustments(),
                 outstandingBalance,
-                entries.size(),
+                totals.getEntryCount().intValue(),
+                totals.getFirstTransactionDate(),
+                totals.getLastTransactionDate(),
+                balanceStale,
                 transactionDtos
         );
     }
@@ -150,37 +414,45 @@ public class LedgerService {
         Party party = partyRepository.findByIdAndUser(partyId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
         
-        BigDecimal totalPurchases = ledgerEntryRepository.getTotalPurchases(party);
-        BigDecimal totalPayments = ledgerEntryRepository.getTotalPayments(party);
-        BigDecimal openingBalance = party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO;
-        
-        return openingBalance
-                .add(totalPurchases != null ? totalPurchases : BigDecimal.ZERO)
-                .subtract(totalPayments != null ? totalPayments : BigDecimal.ZERO);
+        if (ledgerEventStore.isEnabled()) {
+            Optional<BigDecimal> journalBalance = ledgerEventStore.currentBalance(party.getId());
+            if (journalBalance.isPresent()) {
+                return journalBalance.get();
+            }
+        }
+        return partyBalanceService.getOutstandingBalance(party);
     }
 
     /**
-     * Recalculates running balances for all entries of a party
-     * Running balance = Opening Balance + Sum of all previous transactions
+     * Audit trail of a party ledger: journal events in sequence order after the given sequence number.
      */
-    private void recalculateRunningBalances(Party party) {
-        List<LedgerEntry> entries = ledgerEntryRepository.findByPartyOrderByTransactionDateAscIdAsc(party);
-        BigDecimal openingBalance = party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO;
-        BigDecimal runningBalance = openingBalance;
-        
-        for (LedgerEntry entry : entries) {
-            switch (entry.getTransactionType()) {
-                case PURCHASE:
-                case ADJUSTMENT:
-                    runningBalance = runningBalance.add(entry.getAmount());
-                    break;
-                case PAYMENT:
-                    runningBalance = runningBalance.subtract(entry.getAmount());
-                    break;
-            }
-            entry.setRunningBalance(runningBalance);
-            ledgerEntryRepository.save(entry);
-        }
+    public List<LedgerEvent> getPartyEvents(Long partyId, long afterSequence, int size) {
+        User currentUser = securityUtil.getCurrentUser();
+        Party party = partyRepository.findByIdAndUser(partyId, currentUser)
+                .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+
+        return ledgerEventStore.getEvents(party.getId(), afterSequence, size);
+    }
+
+    /**
+     * Interest charged to a party per month, newest first.
+     */
+    public List<InterestAccrual> getPartyInterestAccruals(Long partyId) {
+        User currentUser = securityUtil.getCurrentUser();
+        Party party = partyRepository.findByIdAndUser(partyId, currentUser)
+                .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+
+        return interestAccrualRepository.findByPartyIdOrderByPeriodMonthDesc(party.getId());
+    }
+
+    public List<PartyBalanceRepository.BalanceDrift> verifyPartyBalances() {
+        User currentUser = securityUtil.getCurrentUser();
+        return partyBalanceService.verifyForUser(currentUser);
+    }
+
+    public void rebuildPartyBalances() {
+        User currentUser = securityUtil.getCurrentUser();
+        partyBalanceService.rebuildForUser(currentUser);
     }
 
     public Optional<LedgerEntry> getLedgerEntryById(Long id) {
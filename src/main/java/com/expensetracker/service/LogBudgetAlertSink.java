@@ -0,0 +1,23 @@
+package com.expensetracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default alert sink: writes each alert to the application log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.budgets.alerts.sink", havingValue = "log", matchIfMissing = true)
+public class LogBudgetAlertSink implements BudgetAlertSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogBudgetAlertSink.class);
+
+    @Override
+    public void deliver(Alert alert) {
+        logger.info("Budget {} ({} {}) for user {} reached {}% in period starting {}: spent {} of {} ({}%)",
+                alert.budgetId(), alert.period(), alert.category(), alert.userId(), alert.threshold(),
+                alert.periodStart(), alert.spent(), alert.amount(), alert.percentUsed());
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default reminder sink: writes each reminder to the application log.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ledger.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LogReminderNotifier implements ReminderNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogReminderNotifier.class);
+
+    @Override
+    public void notify(DueReminder reminder) {
+        logger.info("Payment due {} from party {} ({}) for entry {}: amount {}, outstanding {}",
+                reminder.dueDate(), reminder.partyId(), reminder.partyName(), reminder.entryId(),
+                reminder.amount(), reminder.outstandingBalance());
+    }
+}
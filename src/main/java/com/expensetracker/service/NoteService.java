@@ -6,25 +6,26 @@ import com.expensetracker.repository.NoteRepository;
 import com.expensetracker.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class NoteService {
 
     private final NoteRepository noteRepository;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public NoteService(NoteRepository noteRepository, SecurityUtil securityUtil) {
+    public NoteService(NoteRepository noteRepository, JsonStreamService jsonStreamService, SecurityUtil securityUtil) {
         this.noteRepository = noteRepository;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<Note> getAllNotes() {
-        User currentUser = securityUtil.getCurrentUser();
-        return noteRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllNotes() {
+        return jsonStreamService.streamArray(noteRepository::streamByUser);
     }
 
     public Optional<Note> getNoteById(Long id) {
@@ -0,0 +1,130 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.PartyBalance;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.PartyBalanceRepository;
+import com.expensetracker.repository.PartyBalanceRepository.BalanceDrift;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Keeps the party_balances read model in step with ledger writes. Callers invoke it
+ * inside their own transaction so the totals commit or roll back together with the entry.
+ */
+@Service
+@Transactional
+public class PartyBalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartyBalanceService.class);
+
+    private final PartyBalanceRepository partyBalanceRepository;
+
+    @Autowired
+    public PartyBalanceService(PartyBalanceRepository partyBalanceRepository) {
+        this.partyBalanceRepository = partyBalanceRepository;
+    }
+
+    public void initialize(Party party) {
+        PartyBalance balance = new PartyBalance();
+        balance.setPartyId(party.getId());
+        balance.setUserId(party.getUser().getId());
+        balance.setOutstandingBalance(party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO);
+        partyBalanceRepository.save(balance);
+    }
+
+    public void entryAdded(LedgerEntry entry) {
+        applyEntry(entry.getParty().getId(), entry.getTransactionType(), entry.getAmount(), 1);
+    }
+
+    public void entryRemoved(LedgerEntry entry) {
+        applyEntry(entry.getParty().getId(), entry.getTransactionType(), entry.getAmount(), -1);
+    }
+
+    /**
+     * Moves an edited entry's contribution from its previous values to its current ones.
+     */
+    public void entryChanged(Long previousPartyId, LedgerEntry.TransactionType previousType,
+                             BigDecimal previousAmount, LedgerEntry entry) {
+        if (!tryApply(previousPartyId, previousType, previousAmount, -1)) {
+            rebuildMissing(previousPartyId);
+            if (previousPartyId.equals(entry.getParty().getId())) {
+                // The rebuilt row already reflects the edited entry
+                return;
+            }
+        }
+        entryAdded(entry);
+    }
+
+    /**
+     * Applies the effect of adding (direction 1) or removing (direction -1) an entry to the party's totals.
+     */
+    public void applyEntry(Long partyId, LedgerEntry.TransactionType type, BigDecimal amount, int direction) {
+        if (!tryApply(partyId, type, amount, direction)) {
+            rebuildMissing(partyId);
+        }
+    }
+
+    /**
+     * Applies accumulated totals of several added entries at once, e.g. after a bulk import.
+     */
+    public void applyTotals(Long partyId, BigDecimal purchases, BigDecimal payments,
+                            BigDecimal adjustments, long entryCount) {
+        if (partyBalanceRepository.applyDelta(partyId, purchases, payments, adjustments, entryCount) == 0) {
+            rebuildMissing(partyId);
+        }
+    }
+
+    private boolean tryApply(Long partyId, LedgerEntry.TransactionType type, BigDecimal amount, int direction) {
+        BigDecimal signedAmount = amount.multiply(BigDecimal.valueOf(direction));
+        BigDecimal purchases = type == LedgerEntry.TransactionType.PURCHASE ? signedAmount : BigDecimal.ZERO;
+        BigDecimal payments = type == LedgerEntry.TransactionType.PAYMENT ? signedAmount : BigDecimal.ZERO;
+        BigDecimal adjustments = type == LedgerEntry.TransactionType.ADJUSTMENT ? signedAmount : BigDecimal.ZERO;
+
+        return partyBalanceRepository.applyDelta(partyId, purchases, payments, adjustments, direction) > 0;
+    }
+
+    private void rebuildMissing(Long partyId) {
+        // Party predates the balance table; build its row from the ledger, which already includes this change
+        logger.debug("No balance row for party {}, rebuilding from ledger", partyId);
+        partyBalanceRepository.rebuildForParty(partyId);
+    }
+
+    public PartyBalance getBalance(Party party) {
+        return partyBalanceRepository.findById(party.getId())
+                .orElseGet(() -> {
+                    partyBalanceRepository.rebuildForParty(party.getId());
+                    return partyBalanceRepository.findById(party.getId())
+                            .orElseThrow(() -> new RuntimeException("Party not found with id: " + party.getId()));
+                });
+    }
+
+    public BigDecimal getOutstandingBalance(Party party) {
+        return getBalance(party).getOutstandingBalance();
+    }
+
+    public void rebuild(Long partyId) {
+        partyBalanceRepository.rebuildForParty(partyId);
+    }
+
+    public void rebuildForUser(User user) {
+        partyBalanceRepository.rebuildForUser(user.getId());
+        logger.info("Rebuilt party balances for user {}", user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<BalanceDrift> verifyForUser(User user) {
+        return partyBalanceRepository.findDriftedBalances(user.getId());
+    }
+
+    public void delete(Long partyId) {
+        partyBalanceRepository.deleteById(partyId);
+    }
+}
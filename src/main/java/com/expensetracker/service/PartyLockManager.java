@@ -0,0 +1,130 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.PartyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes ledger writes per party. A striped in-process lock keeps writers on this node from
+ * piling up on the database, and a SELECT ... FOR UPDATE on the parties row serializes writers
+ * across nodes. Both are held until the surrounding transaction completes; writes to parties on
+ * different stripes never wait for each other.
+ */
+@Component
+public class PartyLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final PartyRepository partyRepository;
+    private final Timer localWaitTimer;
+    private final Timer databaseWaitTimer;
+
+    @Autowired
+    public PartyLockManager(PartyRepository partyRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.ledger.lock-stripes:1024}") int stripeCount,
+                            @Value("${app.ledger.lock-timeout-ms:30000}") long timeoutMillis) {
+        this.partyRepository = partyRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.localWaitTimer = Timer.builder("ledger.party.lock.wait")
+                .description("Time spent waiting for per-party ledger write locks")
+                .tag("lock", "local")
+                .register(meterRegistry);
+        this.databaseWaitTimer = Timer.builder("ledger.party.lock.wait")
+                .description("Time spent waiting for per-party ledger write locks")
+                .tag("lock", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Locks a party owned by the given user for the rest of the current transaction.
+     */
+    public Party lockParty(Long partyId, User user) {
+        return lockParties(List.of(partyId), user).get(0);
+    }
+
+    /**
+     * Locks several parties in ascending id order, so concurrent multi-party writers cannot deadlock.
+     * A null user skips the ownership check (background jobs).
+     */
+    public List<Party> lockParties(Collection<Long> partyIds, User user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Party locks must be acquired inside a transaction");
+        }
+
+        TreeSet<Long> orderedIds = new TreeSet<>(partyIds);
+        acquireStripes(orderedIds);
+
+        List<Party> parties = new ArrayList<>(orderedIds.size());
+        long start = System.nanoTime();
+        for (Long partyId : orderedIds) {
+            Party party = (user != null
+                    ? partyRepository.findByIdAndUserForUpdate(partyId, user)
+                    : partyRepository.findByIdForUpdate(partyId))
+                    .orElseThrow(() -> new RuntimeException("Party not found or access denied"));
+            parties.add(party);
+        }
+        databaseWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return parties;
+    }
+
+    private void acquireStripes(TreeSet<Long> orderedIds) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (Long partyId : orderedIds) {
+            stripeIndexes.add(Math.floorMod(Long.hashCode(partyId), stripes.length));
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>(stripeIndexes.size());
+        long start = System.nanoTime();
+        try {
+            for (Integer index : stripeIndexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new RuntimeException("Timed out waiting for ledger lock, please retry");
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseAll(acquired);
+            throw new RuntimeException("Interrupted while waiting for ledger lock");
+        } catch (RuntimeException e) {
+            releaseAll(acquired);
+            throw e;
+        } finally {
+            localWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        // Released on the same thread once the transaction has committed or rolled back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                releaseAll(acquired);
+            }
+        });
+    }
+
+    private static void releaseAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
@@ -1,32 +1,113 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.PartyWithBalanceDto;
+import com.expensetracker.entity.InterestAccrual;
 import com.expensetracker.entity.Party;
 import com.expensetracker.entity.User;
+import com.expensetracker.event.LedgerChangedEvent;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.InterestAccrualRepository;
+import com.expensetracker.repository.LedgerCheckpointRepository;
+import com.expensetracker.repository.LedgerEntryRepository;
 import com.expensetracker.repository.PartyRepository;
 import com.expensetracker.util.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class PartyService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PartyService.class);
+
     private final PartyRepository partyRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final PartyBalanceService partyBalanceService;
+    private final RunningBalanceService runningBalanceService;
+    private final PartyLockManager partyLockManager;
+    private final LedgerEventStore ledgerEventStore;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+    private final InterestAccrualRepository interestAccrualRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public PartyService(PartyRepository partyRepository, SecurityUtil securityUtil) {
+    public PartyService(PartyRepository partyRepository, LedgerEntryRepository ledgerEntryRepository,
+                        PartyBalanceService partyBalanceService, RunningBalanceService runningBalanceService,
+                        PartyLockManager partyLockManager, LedgerEventStore ledgerEventStore,
+                        LedgerCheckpointRepository ledgerCheckpointRepository,
+                        InterestAccrualRepository interestAccrualRepository,
+                        ApplicationEventPublisher eventPublisher, JsonStreamService jsonStreamService,
+                        SecurityUtil securityUtil) {
         this.partyRepository = partyRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.partyBalanceService = partyBalanceService;
+        this.runningBalanceService = runningBalanceService;
+        this.partyLockManager = partyLockManager;
+        this.ledgerEventStore = ledgerEventStore;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        this.interestAccrualRepository = interestAccrualRepository;
+        this.eventPublisher = eventPublisher;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<Party> getAllParties() {
+    public StreamingResponseBody streamAllParties() {
+        return jsonStreamService.streamArray(partyRepository::streamByUser);
+    }
+
+    public enum BalanceSort {
+        NAME,
+        BALANCE,
+        LAST_TRANSACTION
+    }
+
+    /**
+     * Lists the current user's parties together with their outstanding balance, entry count and
+     * last transaction date, so the party screen needs a single request.
+     */
+    public List<PartyWithBalanceDto> getPartiesWithBalances(BalanceSort sort, boolean descending) {
         User currentUser = securityUtil.getCurrentUser();
-        return partyRepository.findByUser(currentUser);
+        List<PartyWithBalanceDto> parties = partyRepository.findWithBalancesByUser(currentUser);
+
+        if (parties.stream().anyMatch(party -> party.getOutstandingBalance() == null)) {
+            // Parties created before party_balances existed; build their rows once
+            partyBalanceService.rebuildForUser(currentUser);
+            parties = partyRepository.findWithBalancesByUser(currentUser);
+        }
+
+        Comparator<PartyWithBalanceDto> comparator = switch (sort) {
+            case NAME -> Comparator.comparing(PartyWithBalanceDto::getName, String.CASE_INSENSITIVE_ORDER);
+            case BALANCE -> Comparator.comparing(PartyWithBalanceDto::getOutstandingBalance,
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            case LAST_TRANSACTION -> Comparator.comparing(PartyWithBalanceDto::getLastTransactionDate,
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+        };
+        if (descending) {
+            comparator = comparator.reversed();
+        }
+        return parties.stream()
+                .sorted(comparator.thenComparing(PartyWithBalanceDto::getId))
+                .toList();
     }
 
     public Optional<Party> getPartyById(Long id) {
@@ -40,7 +121,11 @@ public class PartyService {
         if (party.getOpeningBalance() == null) {
             party.setOpeningBalance(java.math.BigDecimal.ZERO);
         }
-        return partyRepository.save(party);
+        party.setInterestRateSince(hasInterest(party.getInterestRate()) ? LocalDate.now() : null);
+        Party savedParty = partyRepository.save(party);
+        partyBalanceService.initialize(savedParty);
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), savedParty.getId()));
+        return savedParty;
     }
 
     public Party updateParty(Long id, Party partyDetails) {
@@ -51,27 +136,123 @@ public class PartyService {
         party.setName(partyDetails.getName());
         party.setPhone(partyDetails.getPhone());
         party.setNotes(partyDetails.getNotes());
+        party.setCreditDays(partyDetails.getCreditDays());
+        if (!sameRate(party.getInterestRate(), partyDetails.getInterestRate())) {
+            // A new rate only applies from today; earlier months are never charged at it
+            party.setInterestRateSince(hasInterest(partyDetails.getInterestRate()) ? LocalDate.now() : null);
+        }
+        party.setInterestRate(partyDetails.getInterestRate());
         // Opening balance should not be updated directly - use adjustment entry instead
         // party.setOpeningBalance(partyDetails.getOpeningBalance());
 
-        return partyRepository.save(party);
+        Party savedParty = partyRepository.save(party);
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), savedParty.getId()));
+        return savedParty;
     }
 
     public void deleteParty(Long id) {
         User currentUser = securityUtil.getCurrentUser();
-        Party party = partyRepository.findByIdAndUser(id, currentUser)
-                .orElseThrow(() -> new RuntimeException("Party not found with id: " + id));
+        // Waits for in-flight writes and deferred recomputes of the party, like every other party write
+        Party party = partyLockManager.lockParty(id, currentUser);
         
         // Check if party has ledger entries
         // In a production system, you might want to prevent deletion if entries exist
         // For now, we'll allow deletion (cascade will handle it if configured)
         
+        partyBalanceService.delete(party.getId());
+        ledgerCheckpointRepository.deleteByPartyId(party.getId());
         partyRepository.delete(party);
+        eventPublisher.publishEvent(LedgerChangedEvent.of(currentUser.getId(), id));
+    }
+
+    /**
+     * Merges duplicate parties into the target: their ledger entries are reassigned in one bulk update,
+     * their opening balances are added to the target's, the target ledger is rebalanced once and the
+     * source parties are deleted, all in one transaction. Pending payment reminders live on the entries and
+     * move with them; interest accrual records are moved or merged into the target's.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Party mergeParties(Long targetId, List<Long> sourceIds) {
+        User currentUser = securityUtil.getCurrentUser();
+        Set<Long> sources = new LinkedHashSet<>(sourceIds);
+        if (sources.isEmpty()) {
+            throw new ValidationException("At least one source party is required");
+        }
+        if (sources.contains(targetId)) {
+            throw new ValidationException("A party cannot be merged into itself");
+        }
+
+        Set<Long> allIds = new HashSet<>(sources);
+        allIds.add(targetId);
+        List<Party> parties = partyLockManager.lockParties(allIds, currentUser);
+
+        Party target = null;
+        BigDecimal openingBalance = BigDecimal.ZERO;
+        BigDecimal mergedBalance = BigDecimal.ZERO;
+        for (Party party : parties) {
+            if (party.getId().equals(targetId)) {
+                target = party;
+                ledgerEventStore.ensureStarted(party);
+            } else if (ledgerEventStore.isEnabled()) {
+                mergedBalance = mergedBalance.add(partyBalanceService.getOutstandingBalance(party));
+            }
+            openingBalance = openingBalance.add(party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO);
+        }
+        target.setOpeningBalance(openingBalance);
+        partyRepository.save(target);
+
+        // Flushes the opening balance first, then clears the persistence context
+        int moved = ledgerEntryRepository.reassignParty(sources, target, currentUser, LocalDateTime.now());
+        mergeInterestAccruals(targetId, sources);
+
+        for (Long sourceId : sources) {
+            partyBalanceService.delete(sourceId);
+            ledgerCheckpointRepository.deleteByPartyId(sourceId);
+        }
+        partyRepository.deleteAllById(sources);
+
+        partyBalanceService.rebuild(targetId);
+        ledgerEventStore.partiesMerged(target, mergedBalance);
+        runningBalanceService.recalculateAll(target);
+        eventPublisher.publishEvent(new LedgerChangedEvent(currentUser.getId(), Set.copyOf(allIds)));
+
+        logger.info("Merged parties {} into party {} ({} ledger entries moved)", sources, targetId, moved);
+        return partyRepository.findById(targetId).orElseThrow();
+    }
+
+    /**
+     * Moves the sources' interest accruals to the target, so the interest job does not charge the moved
+     * balance again for a month already accrued. A month the target (or another source) already has is
+     * added to that record; the record left over is deleted with its source party.
+     */
+    private void mergeInterestAccruals(Long targetId, Set<Long> sources) {
+        Map<LocalDate, InterestAccrual> byMonth = new HashMap<>();
+        for (InterestAccrual accrual : interestAccrualRepository.findByPartyIdOrderByPeriodMonthDesc(targetId)) {
+            byMonth.put(accrual.getPeriodMonth(), accrual);
+        }
+        for (InterestAccrual accrual : interestAccrualRepository.findByPartyIdIn(sources)) {
+            InterestAccrual kept = byMonth.get(accrual.getPeriodMonth());
+            if (kept == null) {
+                accrual.setPartyId(targetId);
+                byMonth.put(accrual.getPeriodMonth(), accrual);
+            } else {
+                kept.setAmount(kept.getAmount().add(accrual.getAmount()));
+                kept.setAverageOverdue(kept.getAverageOverdue().add(accrual.getAverageOverdue()));
+            }
+        }
+        interestAccrualRepository.flush();
     }
 
     public List<Party> searchParties(String searchTerm) {
         User currentUser = securityUtil.getCurrentUser();
         return partyRepository.findByUserAndNameContainingIgnoreCase(currentUser, searchTerm);
     }
-}
 
+    private static boolean hasInterest(BigDecimal rate) {
+        return rate != null && rate.signum() > 0;
+    }
+
+    private static boolean sameRate(BigDecimal current, BigDecimal requested) {
+        return current == null ? requested == null : requested != null && current.compareTo(requested) == 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Delivers payment-due reminders. Select the implementation with app.ledger.reminders.sink.
+ */
+public interface ReminderNotifier {
+
+    void notify(DueReminder reminder);
+
+    record DueReminder(Long entryId,
+                       Long partyId,
+                       String partyName,
+                       Long userId,
+                       BigDecimal amount,
+                       LocalDate dueDate,
+                       BigDecimal outstandingBalance) {
+    }
+}
@@ -0,0 +1,215 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Entry point for running-balance recomputes after ledger writes. By default the recompute runs
+ * synchronously in the writer's transaction. With app.ledger.deferred-rebalance=true it is queued once
+ * the write commits and run on the runningBalanceExecutor instead. Requests for a party that is already
+ * queued collapse into one recompute from the earliest affected position, and at most one worker
+ * processes a given party at a time.
+ *
+ * A party stays pending, and reads report its balances as stale, until a recompute succeeds. Work the
+ * executor rejects or that fails is kept and resubmitted by a sweep every app.ledger.deferred-retry-ms.
+ */
+@Component
+public class RunningBalanceQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunningBalanceQueue.class);
+
+    private final RunningBalanceService runningBalanceService;
+    private final PartyLockManager partyLockManager;
+    private final PartyRepository partyRepository;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean deferred;
+    private final long readWaitMillis;
+
+    private final Map<Long, PendingWork> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RunningBalanceQueue(RunningBalanceService runningBalanceService,
+                               PartyLockManager partyLockManager,
+                               PartyRepository partyRepository,
+                               @Qualifier("runningBalanceExecutor") Executor executor,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.ledger.deferred-rebalance:false}") boolean deferred,
+                               @Value("${app.ledger.deferred-read-wait-ms:2000}") long readWaitMillis) {
+        this.runningBalanceService = runningBalanceService;
+        this.partyLockManager = partyLockManager;
+        this.partyRepository = partyRepository;
+        this.executor = executor;
+        this.deferred = deferred;
+        this.readWaitMillis = readWaitMillis;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        Gauge.builder("ledger.rebalance.pending", pending, Map::size)
+                .description("Parties with a queued running-balance recompute")
+                .register(meterRegistry);
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Recalculates running balances from the given position, now or after commit depending on the mode.
+     * Must be called inside the writing transaction, with the party locked.
+     */
+    public void recalculateFrom(Party party, LedgerPosition from) {
+        if (!deferred) {
+            runningBalanceService.recalculateFrom(party, from);
+            return;
+        }
+
+        Long partyId = party.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(partyId, from);
+            }
+        });
+    }
+
+    /**
+     * Waits (bounded by app.ledger.deferred-read-wait-ms) for queued work on the party to finish.
+     *
+     * @return true if the party's running balances may still be stale
+     */
+    public boolean awaitSettled(Long partyId) {
+        PendingWork work = pending.get(partyId);
+        if (work == null) {
+            return false;
+        }
+        try {
+            work.settled.get(readWaitMillis, TimeUnit.MILLISECONDS);
+            return false;
+        } catch (TimeoutException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    public boolean isPending(Long partyId) {
+        return pending.containsKey(partyId);
+    }
+
+    private void enqueue(Long partyId, LedgerPosition from) {
+        boolean start;
+        PendingWork work;
+        synchronized (pending) {
+            work = pending.computeIfAbsent(partyId, id -> new PendingWork());
+            work.from = RunningBalanceService.earliest(work.from, from);
+            start = !work.running;
+            work.running = true;
+        }
+        if (start) {
+            submit(partyId, work);
+        }
+    }
+
+    /**
+     * Resubmits parties whose recompute was rejected by a full executor or failed.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.deferred-retry-ms:5000}")
+    public void retryPending() {
+        pending.forEach((partyId, work) -> {
+            boolean start;
+            synchronized (pending) {
+                start = !work.running && work.from != null;
+                work.running |= start;
+            }
+            if (start) {
+                submit(partyId, work);
+            }
+        });
+    }
+
+    private void submit(Long partyId, PendingWork work) {
+        try {
+            executor.execute(() -> drain(partyId, work));
+        } catch (TaskRejectedException e) {
+            // Stays pending; the retry sweep submits it again
+            synchronized (pending) {
+                work.running = false;
+            }
+            logger.debug("Running balance executor full, party {} left for the retry sweep", partyId);
+        }
+    }
+
+    private void drain(Long partyId, PendingWork work) {
+        while (true) {
+            LedgerPosition from;
+            synchronized (pending) {
+                from = work.from;
+                work.from = null;
+                if (from == null) {
+                    pending.remove(partyId);
+                    work.settled.complete(null);
+                    return;
+                }
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Party> parties = partyLockManager.lockParties(List.of(partyId), null);
+                    runningBalanceService.recalculateFrom(parties.get(0), from);
+                });
+            } catch (RuntimeException e) {
+                if (!partyRepository.existsById(partyId)) {
+                    // Party deleted; nothing left to recompute
+                    synchronized (pending) {
+                        pending.remove(partyId);
+                    }
+                    work.settled.complete(null);
+                    return;
+                }
+                logger.error("Deferred running balance recompute failed for party {}, will retry", partyId, e);
+                synchronized (pending) {
+                    work.from = RunningBalanceService.earliest(work.from, from);
+                    work.running = false;
+                }
+                return;
+            }
+        }
+    }
+
+    private static class PendingWork {
+        private LedgerPosition from;
+        private boolean running;
+        private final CompletableFuture<Void> settled = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,138 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.LedgerCheckpoint;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.LedgerCheckpointRepository;
+import com.expensetracker.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains the denormalized running_balance column of ledger entries.
+ * Entries are ordered by (transactionDate, id); a change at some position only
+ * affects the balances from that position onwards, so only that suffix is rewritten.
+ * Monthly closing-balance checkpoints are derived from the rewritten balances.
+ */
+@Service
+@Transactional
+public class RunningBalanceService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    public RunningBalanceService(LedgerEntryRepository ledgerEntryRepository,
+                                 LedgerCheckpointRepository ledgerCheckpointRepository) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerCheckpointRepository = ledgerCheckpointRepository;
+    }
+
+    /**
+     * Recalculates running balances of all entries at or after the given position,
+     * using the balance of the preceding entry as the starting point.
+     */
+    public void recalculateFrom(Party party, LedgerPosition from) {
+        List<LedgerEntry> preceding = ledgerEntryRepository.findPrecedingEntries(
+                party, from.transactionDate(), from.id(), PageRequest.of(0, 1));
+
+        if (preceding.isEmpty()) {
+            recalculateAll(party);
+            return;
+        }
+
+        BigDecimal seed = preceding.get(0).getRunningBalance();
+        if (seed == null) {
+            // Preceding balances were never computed, the whole ledger has to be rebuilt
+            recalculateAll(party);
+            return;
+        }
+
+        ledgerEntryRepository.updateRunningBalancesFrom(party.getId(), from.transactionDate(), from.id(), seed);
+        refreshCheckpoints(party.getId(), from.transactionDate().withDayOfMonth(1));
+    }
+
+    /**
+     * Recalculates running balances for all entries of a party
+     * Running balance = Opening Balance + Sum of all previous transactions
+     */
+    public void recalculateAll(Party party) {
+        ledgerEntryRepository.updateAllRunningBalances(party.getId());
+        refreshCheckpoints(party.getId(), null);
+    }
+
+    /**
+     * Rewrites the monthly checkpoints from the given month onwards (all months when null).
+     */
+    public void refreshCheckpoints(Long partyId, LocalDate fromMonth) {
+        ledgerCheckpointRepository.deleteFromMonth(partyId, fromMonth);
+        ledgerCheckpointRepository.insertFromMonth(partyId, fromMonth);
+    }
+
+    /**
+     * Balance of the party ledger at the start of the given month: the closing balance of the latest
+     * earlier checkpoint, or the opening balance when the party has no earlier entries. Read-only; a
+     * ledger written before checkpoints existed is summed instead until the integrity job back-fills it.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceBeforeMonth(Party party, LocalDate monthStart) {
+        BigDecimal openingBalance = party.getOpeningBalance() != null ? party.getOpeningBalance() : BigDecimal.ZERO;
+        Optional<LedgerCheckpoint> checkpoint = ledgerCheckpointRepository
+                .findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(party.getId(), monthStart);
+        if (checkpoint.isPresent()) {
+            return checkpoint.get().getClosingBalance();
+        }
+        if (ledgerEntryRepository.existsByPartyAndTransactionDateBefore(party, monthStart)) {
+            return openingBalance.add(ledgerEntryRepository.sumSignedAmountsBefore(party.getId(), monthStart));
+        }
+        return openingBalance;
+    }
+
+    /**
+     * Derives the checkpoints of a ledger written before they existed. Must be called with the party locked.
+     *
+     * @return true if the party had entries but no checkpoints
+     */
+    public boolean backfillCheckpoints(Long partyId) {
+        if (ledgerCheckpointRepository.existsByPartyId(partyId)) {
+            return false;
+        }
+        return ledgerCheckpointRepository.insertFromMonth(partyId, null) > 0;
+    }
+
+    /**
+     * Returns the earlier of two ledger positions, ordered by (transactionDate, id).
+     */
+    public static LedgerPosition earliest(LedgerPosition first, LedgerPosition second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    /**
+     * Position of an entry within a party ledger.
+     */
+    public record LedgerPosition(LocalDate transactionDate, Long id) implements Comparable<LedgerPosition> {
+
+        public static LedgerPosition of(LedgerEntry entry) {
+            return new LedgerPosition(entry.getTransactionDate(), entry.getId());
+        }
+
+        @Override
+        public int compareTo(LedgerPosition other) {
+            int byDate = transactionDate.compareTo(other.transactionDate);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+}
@@ -11,26 +11,27 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class SavingsGoalService {
 
     private final SavingsGoalRepository savingsGoalRepository;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public SavingsGoalService(SavingsGoalRepository savingsGoalRepository, SecurityUtil securityUtil) {
+    public SavingsGoalService(SavingsGoalRepository savingsGoalRepository, JsonStreamService jsonStreamService, SecurityUtil securityUtil) {
         this.savingsGoalRepository = savingsGoalRepository;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<SavingsGoal> getAllSavingsGoals() {
-        User currentUser = securityUtil.getCurrentUser();
-        return savingsGoalRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllSavingsGoals() {
+        return jsonStreamService.streamArray(savingsGoalRepository::streamByUser);
     }
 
     public Page<SavingsGoal> getAllSavingsGoals(int page, int size, String sortBy, String sortDir) {
@@ -11,26 +11,27 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final JsonStreamService jsonStreamService;
     private final SecurityUtil securityUtil;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository, SecurityUtil securityUtil) {
+    public TaskService(TaskRepository taskRepository, JsonStreamService jsonStreamService, SecurityUtil securityUtil) {
         this.taskRepository = taskRepository;
+        this.jsonStreamService = jsonStreamService;
         this.securityUtil = securityUtil;
     }
 
-    public List<Task> getAllTasks() {
-        User currentUser = securityUtil.getCurrentUser();
-        return taskRepository.findByUser(currentUser);
+    public StreamingResponseBody streamAllTasks() {
+        return jsonStreamService.streamArray(taskRepository::streamByUser);
     }
 
     public Page<Task> getAllTasks(int page, int size, String sortBy, String sortDir) {
@@ -0,0 +1,121 @@
+package com.expensetracker.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level covering 64 times the span of the one
+ * below. Scheduling is O(1) regardless of how many timers are pending, and advancing by one tick only
+ * touches the current level-0 slot plus, at level boundaries, the one higher-level slot being cascaded
+ * down. Deadlines beyond the top level wait in an overflow list that is re-examined once per top-level
+ * rotation.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final List<List<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item to expire at the given time. Deadlines that have already passed expire on the next tick.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        // Rounded up, so an item never expires before its deadline
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        place(new Timer<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to the given time.
+     *
+     * @return items whose deadline has been reached, in deadline order
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            List<Timer<T>> slot = slot(0, (int) (currentTick & SLOT_MASK));
+            for (Timer<T> timer : slot) {
+                expired.add(timer.item);
+            }
+            size -= slot.size();
+            slot.clear();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Runs at the start of each tick: every level whose span boundary was just crossed re-distributes
+    // its current slot into the levels below, highest level first
+    private void cascade() {
+        if ((currentTick & mask(LEVELS - 1)) == 0 && !overflow.isEmpty()) {
+            List<Timer<T>> pending = new ArrayList<>(overflow);
+            overflow.clear();
+            pending.forEach(this::place);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & mask(level)) != 0) {
+                continue;
+            }
+            List<Timer<T>> slot = slot(level, slotIndex(currentTick, level));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Timer<T>> timers = new ArrayList<>(slot);
+            slot.clear();
+            timers.forEach(this::place);
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long delta = timer.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                slot(level, slotIndex(timer.deadlineTick, level)).add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+
+    private List<Timer<T>> slot(int level, int index) {
+        return slots.get(level * SLOTS + index);
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static long mask(int level) {
+        return (1L << (SLOT_BITS * level)) - 1;
+    }
+
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+}
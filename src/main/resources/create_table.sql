@@ -65,6 +65,7 @@ CREATE TABLE IF NOT EXISTS income (
     updated_at DATETIME(6),
     user_id BIGINT NOT NULL,
     INDEX idx_income_user (user_id),
+    INDEX idx_income_user_date (user_id, created_at),
     CONSTRAINT fk_income_user
         FOREIGN KEY (user_id) REFERENCES users(id)
         ON DELETE CASCADE
@@ -82,6 +83,9 @@ CREATE TABLE IF NOT EXISTS parties (
     gst_number VARCHAR(100),
     notes VARCHAR(1000),
     opening_balance DECIMAL(19,2),
+    credit_days INT,
+    interest_rate DECIMAL(7,4),
+    interest_rate_since DATE,
     created_at DATETIME(6),
     updated_at DATETIME(6),
     user_id BIGINT NOT NULL,
@@ -103,12 +107,16 @@ CREATE TABLE IF NOT EXISTS ledger_entries (
     description VARCHAR(500),
     payment_mode VARCHAR(50),
     running_balance DECIMAL(19,2),
+    due_date DATE,
+    reminder_sent_at DATETIME(6),
     created_at DATETIME(6),
     updated_at DATETIME(6),
     party_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
     INDEX idx_ledger_party (party_id),
+    INDEX idx_ledger_party_date (party_id, transaction_date, id),
     INDEX idx_ledger_user (user_id),
+    INDEX idx_ledger_due_date (due_date),
     CONSTRAINT fk_ledger_party
         FOREIGN KEY (party_id) REFERENCES parties(id)
         ON DELETE CASCADE,
@@ -117,6 +125,128 @@ CREATE TABLE IF NOT EXISTS ledger_entries (
         ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- ======================
+-- PARTY BALANCES
+-- ======================
+CREATE TABLE IF NOT EXISTS party_balances (
+    party_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    total_purchases DECIMAL(19,2) NOT NULL DEFAULT 0,
+    total_payments DECIMAL(19,2) NOT NULL DEFAULT 0,
+    total_adjustments DECIMAL(19,2) NOT NULL DEFAULT 0,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    outstanding_balance DECIMAL(19,2) NOT NULL DEFAULT 0,
+    updated_at DATETIME(6),
+    INDEX idx_party_balances_user (user_id),
+    CONSTRAINT fk_party_balances_party
+        FOREIGN KEY (party_id) REFERENCES parties(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_party_balances_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- ======================
+-- LEDGER CHECKPOINTS
+-- ======================
+CREATE TABLE IF NOT EXISTS ledger_checkpoints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    party_id BIGINT NOT NULL,
+    period_month DATE NOT NULL,
+    closing_balance DECIMAL(19,2) NOT NULL,
+    updated_at DATETIME(6),
+    UNIQUE KEY uk_ledger_checkpoints_party_month (party_id, period_month),
+    CONSTRAINT fk_ledger_checkpoints_party
+        FOREIGN KEY (party_id) REFERENCES parties(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- ======================
+-- LEDGER EVENTS
+-- ======================
+CREATE TABLE IF NOT EXISTS ledger_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    party_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    sequence_number BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    entry_id BIGINT,
+    transaction_type VARCHAR(20),
+    amount DECIMAL(19,2),
+    signed_amount DECIMAL(19,2) NOT NULL,
+    transaction_date DATE,
+    description VARCHAR(500),
+    reference_number VARCHAR(100),
+    payment_mode VARCHAR(50),
+    reverses_event_id BIGINT,
+    created_at DATETIME(6),
+    UNIQUE KEY uk_ledger_events_party_sequence (party_id, sequence_number),
+    INDEX idx_ledger_events_entry (entry_id),
+    CONSTRAINT fk_ledger_events_party
+        FOREIGN KEY (party_id) REFERENCES parties(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_ledger_events_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- ======================
+-- LEDGER SNAPSHOTS
+-- ======================
+CREATE TABLE IF NOT EXISTS ledger_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    party_id BIGINT NOT NULL,
+    sequence_number BIGINT NOT NULL,
+    balance DECIMAL(19,2) NOT NULL,
+    created_at DATETIME(6),
+    UNIQUE KEY uk_ledger_snapshots_party_sequence (party_id, sequence_number),
+    CONSTRAINT fk_ledger_snapshots_party
+        FOREIGN KEY (party_id) REFERENCES parties(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- ======================
+-- INTEREST ACCRUALS
+-- ======================
+CREATE TABLE IF NOT EXISTS interest_accruals (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    party_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    period_month DATE NOT NULL,
+    interest_rate DECIMAL(7,4) NOT NULL,
+    average_overdue DECIMAL(19,2) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    ledger_entry_id BIGINT,
+    created_at DATETIME(6),
+    UNIQUE KEY uk_interest_accruals_party_month (party_id, period_month),
+    CONSTRAINT fk_interest_accruals_party
+        FOREIGN KEY (party_id) REFERENCES parties(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_interest_accruals_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_interest_accruals_entry
+        FOREIGN KEY (ledger_entry_id) REFERENCES ledger_entries(id)
+        ON DELETE SET NULL
+) ENGINE=InnoDB;
+
+-- ======================
+-- EXPENSE ROLLUPS
+-- ======================
+CREATE TABLE IF NOT EXISTS expense_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    period_month DATE NOT NULL,
+    category VARCHAR(100) NOT NULL DEFAULT '',
+    total DECIMAL(38,2) NOT NULL DEFAULT 0,
+    expense_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6),
+    UNIQUE KEY uk_expense_rollups_user_month_category (user_id, period_month, category),
+    CONSTRAINT fk_expense_rollups_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- ======================
 -- NOTES
 -- ======================
@@ -179,6 +309,56 @@ CREATE TABLE IF NOT EXISTS budgets (
         ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- ======================
+-- BUDGET ALERTS
+-- ======================
+CREATE TABLE IF NOT EXISTS budget_alerts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    budget_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    period VARCHAR(20) NOT NULL,
+    period_start DATE NOT NULL,
+    threshold INT NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    spent DECIMAL(38,2) NOT NULL,
+    triggered_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_budget_alerts_budget_period_threshold (budget_id, period_start, threshold),
+    INDEX idx_budget_alerts_user_triggered (user_id, triggered_at),
+    CONSTRAINT fk_budget_alerts_budget
+        FOREIGN KEY (budget_id) REFERENCES budgets(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_budget_alerts_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- ======================
+-- BUDGET PERIODS
+-- ======================
+CREATE TABLE IF NOT EXISTS budget_periods (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    budget_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    budget_type VARCHAR(20) NOT NULL,
+    period VARCHAR(20) NOT NULL,
+    period_start DATE NOT NULL,
+    period_end DATE NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    spent DECIMAL(38,2) NOT NULL,
+    remaining DECIMAL(38,2) NOT NULL,
+    percent_used DECIMAL(19,2),
+    over_budget BOOLEAN NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_budget_periods_budget_start (budget_id, period_start),
+    INDEX idx_budget_periods_user_start (user_id, period_start),
+    -- No foreign key to budgets: the history outlives a deleted budget
+    CONSTRAINT fk_budget_periods_user
+        FOREIGN KEY (user_id) REFERENCES users(id)
+        ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- ======================
 -- SAVINGS GOALS
 -- ======================
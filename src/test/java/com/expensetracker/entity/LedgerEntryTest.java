@@ -0,0 +1,28 @@
+package com.expensetracker.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerEntryTest {
+
+    @Test
+    void paymentsReduceTheOutstandingBalance() {
+        assertThat(entry(LedgerEntry.TransactionType.PAYMENT, "40.00").signedAmount()).isEqualByComparingTo("-40.00");
+    }
+
+    @Test
+    void purchasesAndAdjustmentsIncreaseTheOutstandingBalance() {
+        assertThat(entry(LedgerEntry.TransactionType.PURCHASE, "40.00").signedAmount()).isEqualByComparingTo("40.00");
+        assertThat(entry(LedgerEntry.TransactionType.ADJUSTMENT, "5.50").signedAmount()).isEqualByComparingTo("5.50");
+    }
+
+    private static LedgerEntry entry(LedgerEntry.TransactionType type, String amount) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setTransactionType(type);
+        entry.setAmount(new BigDecimal(amount));
+        return entry;
+    }
+}
@@ -0,0 +1,159 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.LedgerCheckpoint;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@MySqlRepositoryTest
+class LedgerEntryRepositoryTest {
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @Autowired
+    private PartyRepository partyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Party party;
+    private LedgerEntry janPurchase;
+    private LedgerEntry janPayment;
+    private LedgerEntry febPurchase;
+    private LedgerEntry febPayment;
+    private LedgerEntry marAdjustment;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("ledger-test");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+
+        party = new Party();
+        party.setName("Supplier");
+        party.setUser(user);
+        party.setOpeningBalance(new BigDecimal("100.00"));
+        party = partyRepository.save(party);
+
+        janPurchase = save(LedgerEntry.TransactionType.PURCHASE, "200.00", LocalDate.of(2026, 1, 5));
+        janPayment = save(LedgerEntry.TransactionType.PAYMENT, "50.00", LocalDate.of(2026, 1, 20));
+        // Same day: ordered by id
+        febPurchase = save(LedgerEntry.TransactionType.PURCHASE, "30.00", LocalDate.of(2026, 2, 3));
+        febPayment = save(LedgerEntry.TransactionType.PAYMENT, "80.00", LocalDate.of(2026, 2, 3));
+        marAdjustment = save(LedgerEntry.TransactionType.ADJUSTMENT, "10.00", LocalDate.of(2026, 3, 1));
+        ledgerEntryRepository.flush();
+    }
+
+    @Test
+    void updateAllRunningBalancesStartsFromTheOpeningBalanceAndSubtractsPayments() {
+        ledgerEntryRepository.updateAllRunningBalances(party.getId());
+
+        assertThat(runningBalances()).containsExactly(
+                new BigDecimal("300.00"), new BigDecimal("250.00"), new BigDecimal("280.00"),
+                new BigDecimal("200.00"), new BigDecimal("210.00"));
+    }
+
+    @Test
+    void updateRunningBalancesFromRewritesOnlyTheSuffix() {
+        ledgerEntryRepository.updateAllRunningBalances(party.getId());
+        LedgerEntry edited = ledgerEntryRepository.findById(febPurchase.getId()).orElseThrow();
+        edited.setAmount(new BigDecimal("130.00"));
+        ledgerEntryRepository.saveAndFlush(edited);
+
+        int updated = ledgerEntryRepository.updateRunningBalancesFrom(party.getId(), febPurchase.getTransactionDate(),
+                febPurchase.getId(), new BigDecimal("250.00"));
+
+        assertThat(updated).isEqualTo(3);
+        assertThat(runningBalances()).containsExactly(
+                new BigDecimal("300.00"), new BigDecimal("250.00"), new BigDecimal("380.00"),
+                new BigDecimal("300.00"), new BigDecimal("310.00"));
+    }
+
+    @Test
+    void insertFromMonthWritesTheClosingBalanceOfEachMonth() {
+        ledgerEntryRepository.updateAllRunningBalances(party.getId());
+
+        int written = ledgerCheckpointRepository.insertFromMonth(party.getId(), null);
+
+        assertThat(written).isEqualTo(3);
+        assertThat(closingBalanceBefore(LocalDate.of(2026, 2, 1))).isEqualByComparingTo("250.00");
+        assertThat(closingBalanceBefore(LocalDate.of(2026, 3, 1))).isEqualByComparingTo("200.00");
+        assertThat(closingBalanceBefore(LocalDate.of(2026, 4, 1))).isEqualByComparingTo("210.00");
+    }
+
+    @Test
+    void deleteAndInsertFromMonthKeepEarlierCheckpoints() {
+        ledgerEntryRepository.updateAllRunningBalances(party.getId());
+        ledgerCheckpointRepository.insertFromMonth(party.getId(), null);
+
+        ledgerCheckpointRepository.deleteFromMonth(party.getId(), LocalDate.of(2026, 2, 1));
+        int written = ledgerCheckpointRepository.insertFromMonth(party.getId(), LocalDate.of(2026, 2, 1));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(closingBalanceBefore(LocalDate.of(2026, 2, 1))).isEqualByComparingTo("250.00");
+        assertThat(closingBalanceBefore(LocalDate.of(2026, 4, 1))).isEqualByComparingTo("210.00");
+    }
+
+    @Test
+    void sumSignedAmountsBeforeSubtractsPayments() {
+        assertThat(ledgerEntryRepository.sumSignedAmountsBefore(party.getId(), LocalDate.of(2026, 2, 1)))
+                .isEqualByComparingTo("150.00");
+        assertThat(ledgerEntryRepository.sumSignedAmountsBefore(party.getId(), LocalDate.of(2026, 1, 1)))
+                .isEqualByComparingTo("0");
+    }
+
+    @Test
+    void keysetQueriesContinueFromACursorPosition() {
+        List<LedgerEntry> following = ledgerEntryRepository.findFollowingEntries(party,
+                janPayment.getTransactionDate(), janPayment.getId(), PageRequest.of(0, 2));
+        List<LedgerEntry> preceding = ledgerEntryRepository.findPrecedingEntries(party,
+                febPayment.getTransactionDate(), febPayment.getId(), PageRequest.of(0, 10));
+
+        assertThat(following).extracting(LedgerEntry::getId).containsExactly(febPurchase.getId(), febPayment.getId());
+        assertThat(preceding).extracting(LedgerEntry::getId)
+                .containsExactly(febPurchase.getId(), janPayment.getId(), janPurchase.getId());
+        assertThat(ledgerEntryRepository.findFollowingEntries(party, marAdjustment.getTransactionDate(),
+                marAdjustment.getId(), PageRequest.of(0, 2))).isEmpty();
+    }
+
+    private LedgerEntry save(LedgerEntry.TransactionType type, String amount, LocalDate date) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setParty(party);
+        entry.setUser(user);
+        entry.setTransactionType(type);
+        entry.setAmount(new BigDecimal(amount));
+        entry.setTransactionDate(date);
+        return ledgerEntryRepository.save(entry);
+    }
+
+    private List<BigDecimal> runningBalances() {
+        return ledgerEntryRepository.findByPartyOrderByTransactionDateAscIdAsc(party).stream()
+                .map(LedgerEntry::getRunningBalance)
+                .toList();
+    }
+
+    private BigDecimal closingBalanceBefore(LocalDate month) {
+        return ledgerCheckpointRepository
+                .findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(party.getId(), month)
+                .map(LedgerCheckpoint::getClosingBalance)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,23 @@
+package com.expensetracker.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repository test against the MySQL database configured in application.properties (DB_HOST, DB_NAME, ...).
+ * The native queries use MySQL syntax and window functions, so they are not run against an embedded database.
+ * Enabled with MYSQL_TESTS=true; every test rolls back, so a development database can be used.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "MYSQL_TESTS", matches = "true")
+public @interface MySqlRepositoryTest {
+}
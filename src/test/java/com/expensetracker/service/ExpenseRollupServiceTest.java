@@ -0,0 +1,119 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.ExpenseRollupRepository;
+import com.expensetracker.repository.ExpenseRollupRepository.CategoryTotal;
+import com.expensetracker.repository.MySqlRepositoryTest;
+import com.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@MySqlRepositoryTest
+@Import(ExpenseRollupService.class)
+class ExpenseRollupServiceTest {
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private ExpenseRollupRepository expenseRollupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("rollup-test");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void deltasAccumulateInOneRowPerMonthAndCategory() {
+        Expense lunch = add("12.50", "Food");
+        add("7.50", "Food");
+        add("30.00", null);
+
+        assertThat(rollups()).extracting(CategoryTotal::getCategory, CategoryTotal::getExpenseCount)
+                .containsExactlyInAnyOrder(tuple("Food", 2L), tuple("", 1L));
+        assertThat(total("Food")).isEqualByComparingTo("20.00");
+
+        expenseRollupService.expenseRemoved(lunch);
+
+        assertThat(total("Food")).isEqualByComparingTo("7.50");
+    }
+
+    @Test
+    void removingTheLastExpenseDropsTheRow() {
+        Expense only = add("12.50", "Travel");
+
+        expenseRollupService.expenseRemoved(only);
+
+        assertThat(rollups()).isEmpty();
+    }
+
+    @Test
+    void findStaleDetectsAmountAndCategoryChangesThatBypassedTheDeltas() {
+        Expense lunch = add("12.50", "Food");
+        add("30.00", "Travel");
+        assertThat(expenseRollupService.findStale(List.of(user.getId()))).isEmpty();
+
+        // Same count and total, different category
+        jdbcTemplate.update("UPDATE expenses SET category = 'Travel' WHERE id = ?", lunch.getId());
+        assertThat(expenseRollupService.findStale(List.of(user.getId()))).containsExactly(user.getId());
+
+        expenseRollupService.rebuildForUser(user);
+        assertThat(expenseRollupService.findStale(List.of(user.getId()))).isEmpty();
+        assertThat(total("Travel")).isEqualByComparingTo("42.50");
+
+        jdbcTemplate.update("UPDATE expenses SET amount = 13.50 WHERE id = ?", lunch.getId());
+        assertThat(expenseRollupService.findStale(List.of(user.getId()))).containsExactly(user.getId());
+    }
+
+    private Expense add(String amount, String category) {
+        Expense expense = new Expense();
+        expense.setAmount(new BigDecimal(amount));
+        expense.setCategory(category);
+        expense.setDescription("test");
+        expense.setUser(user);
+        expense = expenseRepository.saveAndFlush(expense);
+        expenseRollupService.expenseAdded(expense);
+        return expense;
+    }
+
+    // A projection, so rows changed through JDBC are not served stale from the persistence context
+    private List<CategoryTotal> rollups() {
+        return expenseRollupRepository.findCategoryTotals(user.getId(), LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1));
+    }
+
+    private BigDecimal total(String category) {
+        return rollups().stream()
+                .filter(rollup -> rollup.getCategory().equals(category))
+                .map(CategoryTotal::getTotal)
+                .findFirst()
+                .orElseThrow();
+    }
+}
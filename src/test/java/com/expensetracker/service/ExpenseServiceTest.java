@@ -0,0 +1,115 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.SliceResponse;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.exception.ValidationException;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.util.CursorCodec;
+import com.expensetracker.util.SecurityUtil;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private ExpenseRollupService expenseRollupService;
+
+    @Mock
+    private JsonStreamService jsonStreamService;
+
+    @Mock
+    private SecurityUtil securityUtil;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExpenseService expenseService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        expenseService = new ExpenseService(expenseRepository, expenseRollupService, jsonStreamService, securityUtil,
+                jdbcTemplate, validator, eventPublisher, 5000, 60);
+        user = new User();
+        user.setId(3L);
+        when(securityUtil.getCurrentUser()).thenReturn(user);
+    }
+
+    @Test
+    void nextCursorResumesAfterTheLastExpenseOfTheSlice() {
+        LocalDateTime newest = LocalDateTime.of(2026, 3, 10, 9, 30, 15, 123_000_000);
+        LocalDateTime older = newest.minusDays(1);
+        Expense first = expense(30L, newest);
+        Expense second = expense(29L, older);
+        Expense extra = expense(28L, older);
+        when(expenseRepository.findFirstSlice(user, PageRequest.of(0, 3))).thenReturn(List.of(first, second, extra));
+        when(expenseRepository.findSliceAfter(user, older, 29L, PageRequest.of(0, 3))).thenReturn(List.of(extra));
+
+        SliceResponse<Expense> firstSlice = expenseService.getExpenseSlice(null, 2, false);
+        assertThat(firstSlice.getContent()).containsExactly(first, second);
+        assertThat(firstSlice.isHasNext()).isTrue();
+
+        SliceResponse<Expense> secondSlice = expenseService.getExpenseSlice(firstSlice.getNextCursor(), 2, false);
+        assertThat(secondSlice.getContent()).containsExactly(extra);
+        assertThat(secondSlice.isHasNext()).isFalse();
+        assertThat(secondSlice.getNextCursor()).isNull();
+    }
+
+    @Test
+    void undatedExpensesContinueByIdAfterTheDatedOnes() {
+        Expense dated = expense(12L, LocalDateTime.of(2026, 1, 5, 8, 0));
+        Expense undated = expense(4L, null);
+        Expense extra = expense(2L, null);
+        when(expenseRepository.findFirstSlice(user, PageRequest.of(0, 3))).thenReturn(List.of(dated, undated, extra));
+        when(expenseRepository.findUndatedSliceAfter(user, 4L, PageRequest.of(0, 3))).thenReturn(List.of(extra));
+
+        SliceResponse<Expense> firstSlice = expenseService.getExpenseSlice(null, 2, false);
+        SliceResponse<Expense> secondSlice = expenseService.getExpenseSlice(firstSlice.getNextCursor(), 2, false);
+
+        assertThat(secondSlice.getContent()).containsExactly(extra);
+    }
+
+    @Test
+    void rejectsACursorFromAnotherListing() {
+        String ledgerCursor = CursorCodec.encode("n", "2026-03-10", 42L);
+
+        assertThatThrownBy(() -> expenseService.getExpenseSlice(ledgerCursor, 2, false))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private Expense expense(Long id, LocalDateTime createdAt) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setUser(user);
+        expense.setCreatedAt(createdAt);
+        return expense;
+    }
+}
@@ -0,0 +1,105 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.AgingReport;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.LedgerEntryRepository;
+import com.expensetracker.repository.MySqlRepositoryTest;
+import com.expensetracker.repository.PartyRepository;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.util.SecurityUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@MySqlRepositoryTest
+@Import(LedgerAgingService.class)
+class LedgerAgingServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 4, 30);
+
+    @Autowired
+    private LedgerAgingService ledgerAgingService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private PartyRepository partyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private SecurityUtil securityUtil;
+
+    private User user;
+    private Party party;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("aging-test");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+        when(securityUtil.getCurrentUser()).thenReturn(user);
+
+        party = new Party();
+        party.setName("Customer");
+        party.setUser(user);
+        party = partyRepository.save(party);
+    }
+
+    @Test
+    void paymentsSettleTheOldestPurchasesFirst() {
+        save(LedgerEntry.TransactionType.PURCHASE, "100.00", LocalDate.of(2026, 1, 1));
+        save(LedgerEntry.TransactionType.PURCHASE, "50.00", LocalDate.of(2026, 3, 20));
+        save(LedgerEntry.TransactionType.PURCHASE, "70.00", LocalDate.of(2026, 4, 20));
+        save(LedgerEntry.TransactionType.PAYMENT, "120.00", LocalDate.of(2026, 4, 25));
+        // After the report date, so not yet allocated
+        save(LedgerEntry.TransactionType.PAYMENT, "500.00", LocalDate.of(2026, 5, 2));
+        ledgerEntryRepository.flush();
+
+        AgingReport report = ledgerAgingService.getAgingReport(AS_OF);
+
+        assertThat(report.getOver90Days()).isEqualByComparingTo("0");
+        assertThat(report.getDays61To90()).isEqualByComparingTo("0");
+        assertThat(report.getDays31To60()).isEqualByComparingTo("30.00");
+        assertThat(report.getDays0To30()).isEqualByComparingTo("70.00");
+        assertThat(report.getTotalDue()).isEqualByComparingTo("100.00");
+        assertThat(report.getParties()).extracting(AgingReport.PartyAging::getPartyId).containsExactly(party.getId());
+    }
+
+    @Test
+    void fullyPaidPartiesAreLeftOut() {
+        save(LedgerEntry.TransactionType.PURCHASE, "40.00", LocalDate.of(2026, 2, 1));
+        save(LedgerEntry.TransactionType.PAYMENT, "40.00", LocalDate.of(2026, 2, 15));
+        ledgerEntryRepository.flush();
+
+        AgingReport report = ledgerAgingService.getAgingReport(AS_OF);
+
+        assertThat(report.getParties()).isEmpty();
+        assertThat(report.getTotalDue()).isEqualByComparingTo("0");
+    }
+
+    private void save(LedgerEntry.TransactionType type, String amount, LocalDate date) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setParty(party);
+        entry.setUser(user);
+        entry.setTransactionType(type);
+        entry.setAmount(new BigDecimal(amount));
+        entry.setTransactionDate(date);
+        ledgerEntryRepository.save(entry);
+    }
+}
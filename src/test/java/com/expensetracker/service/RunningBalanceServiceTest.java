@@ -0,0 +1,144 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.LedgerCheckpoint;
+import com.expensetracker.entity.LedgerEntry;
+import com.expensetracker.entity.Party;
+import com.expensetracker.repository.LedgerCheckpointRepository;
+import com.expensetracker.repository.LedgerEntryRepository;
+import com.expensetracker.service.RunningBalanceService.LedgerPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RunningBalanceServiceTest {
+
+    private static final LocalDate MARCH_10 = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+
+    @InjectMocks
+    private RunningBalanceService runningBalanceService;
+
+    private Party party;
+
+    @BeforeEach
+    void setUp() {
+        party = new Party();
+        party.setId(7L);
+        party.setOpeningBalance(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void recalculateFromMiddleSeedsTheSuffixWithThePrecedingBalance() {
+        LedgerEntry preceding = entry(41L, LedgerEntry.TransactionType.PURCHASE, "250.00", LocalDate.of(2026, 3, 2));
+        preceding.setRunningBalance(new BigDecimal("350.00"));
+        when(ledgerEntryRepository.findPrecedingEntries(party, MARCH_10, 42L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(preceding));
+
+        runningBalanceService.recalculateFrom(party, new LedgerPosition(MARCH_10, 42L));
+
+        verify(ledgerEntryRepository).updateRunningBalancesFrom(7L, MARCH_10, 42L, new BigDecimal("350.00"));
+        verify(ledgerEntryRepository, never()).updateAllRunningBalances(anyLong());
+        verify(ledgerCheckpointRepository).deleteFromMonth(7L, LocalDate.of(2026, 3, 1));
+        verify(ledgerCheckpointRepository).insertFromMonth(7L, LocalDate.of(2026, 3, 1));
+    }
+
+    @Test
+    void recalculateFromTheFirstEntryRebuildsTheWholeLedger() {
+        when(ledgerEntryRepository.findPrecedingEntries(party, MARCH_10, 42L, PageRequest.of(0, 1)))
+                .thenReturn(List.of());
+
+        runningBalanceService.recalculateFrom(party, new LedgerPosition(MARCH_10, 42L));
+
+        verify(ledgerEntryRepository).updateAllRunningBalances(7L);
+        verify(ledgerEntryRepository, never()).updateRunningBalancesFrom(anyLong(), any(), anyLong(), any());
+        verify(ledgerCheckpointRepository).deleteFromMonth(7L, null);
+        verify(ledgerCheckpointRepository).insertFromMonth(7L, null);
+    }
+
+    @Test
+    void recalculateFromRebuildsTheWholeLedgerWhenThePrecedingBalanceWasNeverComputed() {
+        LedgerEntry preceding = entry(41L, LedgerEntry.TransactionType.PURCHASE, "250.00", LocalDate.of(2026, 3, 2));
+        when(ledgerEntryRepository.findPrecedingEntries(party, MARCH_10, 42L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(preceding));
+
+        runningBalanceService.recalculateFrom(party, new LedgerPosition(MARCH_10, 42L));
+
+        verify(ledgerEntryRepository).updateAllRunningBalances(7L);
+        verify(ledgerEntryRepository, never()).updateRunningBalancesFrom(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void balanceBeforeMonthUsesTheLatestEarlierCheckpoint() {
+        LedgerCheckpoint checkpoint = new LedgerCheckpoint(1L, 7L, LocalDate.of(2026, 2, 1), new BigDecimal("80.00"), null);
+        when(ledgerCheckpointRepository.findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(7L, LocalDate.of(2026, 3, 1)))
+                .thenReturn(Optional.of(checkpoint));
+
+        assertThat(runningBalanceService.balanceBeforeMonth(party, LocalDate.of(2026, 3, 1)))
+                .isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void balanceBeforeMonthSumsEarlierEntriesWithoutCheckpoints() {
+        LocalDate monthStart = LocalDate.of(2026, 3, 1);
+        when(ledgerCheckpointRepository.findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(7L, monthStart))
+                .thenReturn(Optional.empty());
+        when(ledgerEntryRepository.existsByPartyAndTransactionDateBefore(party, monthStart)).thenReturn(true);
+        when(ledgerEntryRepository.sumSignedAmountsBefore(7L, monthStart)).thenReturn(new BigDecimal("-30.00"));
+
+        assertThat(runningBalanceService.balanceBeforeMonth(party, monthStart)).isEqualByComparingTo("70.00");
+    }
+
+    @Test
+    void balanceBeforeMonthIsTheOpeningBalanceBeforeTheFirstEntry() {
+        LocalDate monthStart = LocalDate.of(2026, 3, 1);
+        when(ledgerCheckpointRepository.findFirstByPartyIdAndPeriodMonthLessThanOrderByPeriodMonthDesc(7L, monthStart))
+                .thenReturn(Optional.empty());
+        when(ledgerEntryRepository.existsByPartyAndTransactionDateBefore(party, monthStart)).thenReturn(false);
+
+        assertThat(runningBalanceService.balanceBeforeMonth(party, monthStart)).isEqualByComparingTo("100.00");
+        verify(ledgerEntryRepository, never()).sumSignedAmountsBefore(anyLong(), any());
+    }
+
+    @Test
+    void earliestOrdersByDateThenId() {
+        LedgerPosition sameDayLater = new LedgerPosition(MARCH_10, 50L);
+        LedgerPosition sameDayEarlier = new LedgerPosition(MARCH_10, 12L);
+        LedgerPosition dayBefore = new LedgerPosition(MARCH_10.minusDays(1), 99L);
+
+        assertThat(RunningBalanceService.earliest(sameDayLater, sameDayEarlier)).isEqualTo(sameDayEarlier);
+        assertThat(RunningBalanceService.earliest(sameDayEarlier, dayBefore)).isEqualTo(dayBefore);
+        assertThat(RunningBalanceService.earliest(null, sameDayLater)).isEqualTo(sameDayLater);
+        assertThat(RunningBalanceService.earliest(sameDayLater, null)).isEqualTo(sameDayLater);
+    }
+
+    static LedgerEntry entry(Long id, LedgerEntry.TransactionType type, String amount, LocalDate date) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setId(id);
+        entry.setTransactionType(type);
+        entry.setAmount(new BigDecimal(amount));
+        entry.setTransactionDate(date);
+        return entry;
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.util;
+
+import com.expensetracker.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void decodeReturnsTheEncodedParts() {
+        String cursor = CursorCodec.encode("n", LocalDate.of(2026, 3, 10), 42L);
+
+        assertThat(CursorCodec.decode(cursor, 3)).containsExactly("n", "2026-03-10", "42");
+    }
+
+    @Test
+    void cursorsAreUrlSafe() {
+        String cursor = CursorCodec.encode(LocalDateTime.of(2026, 3, 10, 23, 59, 59, 999_000_000), Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(CursorCodec.decode(cursor, 2)).containsExactly("2026-03-10T23:59:59.999", String.valueOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsCursorsWithTheWrongNumberOfParts() {
+        String cursor = CursorCodec.encode("2026-03-10", 42L);
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, 3)).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void rejectsCursorsThatAreNotBase64() {
+        assertThatThrownBy(() -> CursorCodec.decode("not a cursor!", 2)).isInstanceOf(ValidationException.class);
+    }
+}